@@ -0,0 +1,131 @@
+/*
+ * Copyright 2015 Bay of Many
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * This project is derived from code in the Tinkerpop project under the following license:
+ *
+ *    Tinkerpop3
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ */
+
+package org.bayofmany.peapod.benchmark;
+
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.openjdk.jmh.annotations.*;
+import org.reflections.Reflections;
+import peapod.internal.runtime.Framer;
+import peapod.internal.runtime.FramerRegistry;
+import peapod.internal.runtime.IFramer;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the framer lookup of the {@link FramerRegistry} with the previous lookup in a hash map per element kind.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FramerRegistryBenchmark {
+
+    private FramerRegistry registry;
+
+    private HashMapRegistry hashMapRegistry;
+
+    private Vertex vertex;
+
+    @Setup
+    public void init() {
+        TinkerGraph godGraph = TinkerGraph.open();
+        GodGraphLoader.load(godGraph);
+        vertex = godGraph.traversal().V().hasLabel("god").next();
+
+        Set<Class<?>> framerClasses = new Reflections(PeapodGod.class.getPackage().getName() + ".").getTypesAnnotatedWith(Framer.class);
+        registry = FramerRegistry.fromClasses(framerClasses);
+        hashMapRegistry = new HashMapRegistry(framerClasses);
+    }
+
+    @Benchmark
+    public IFramer<?, ?> testLabelLookup() {
+        return registry.get(vertex, PeapodGod.class);
+    }
+
+    @Benchmark
+    public IFramer<?, ?> testLabelLookupHashMap() {
+        return hashMapRegistry.get(vertex, PeapodGod.class);
+    }
+
+    @Benchmark
+    public IFramer<?, ?> testClassLookup() {
+        return registry.get(PeapodGod.class);
+    }
+
+    @Benchmark
+    public IFramer<?, ?> testClassLookupHashMap() {
+        return hashMapRegistry.get(PeapodGod.class);
+    }
+
+    /**
+     * The framer lookup as implemented before the label index.
+     */
+    private static final class HashMapRegistry {
+
+        private final Map<String, IFramer<?, ?>> vertexFramers = new HashMap<>();
+        private final Map<String, IFramer<?, ?>> vertexPropertyFramers = new HashMap<>();
+        private final Map<String, IFramer<?, ?>> edgeFramers = new HashMap<>();
+        private final Map<Class<?>, IFramer<?, ?>> framers = new HashMap<>();
+
+        private HashMapRegistry(Set<Class<?>> framerClasses) {
+            for (Class<?> framerClass : framerClasses) {
+                IFramer<?, ?> framer;
+                try {
+                    framer = (IFramer<?, ?>) framerClass.newInstance();
+                } catch (InstantiationException | IllegalAccessException e) {
+                    throw new RuntimeException(e);
+                }
+                framers.put(framer.frameClass(), framer);
+                if (Vertex.class.equals(framer.type())) {
+                    vertexFramers.put(framer.label(), framer);
+                } else if (Edge.class.equals(framer.type())) {
+                    edgeFramers.put(framer.label(), framer);
+                } else if (VertexProperty.class.equals(framer.type())) {
+                    vertexPropertyFramers.put(framer.label(), framer);
+                }
+            }
+        }
+
+        private IFramer<?, ?> get(Element e, Class<?> clazz) {
+            IFramer<?, ?> framer = null;
+            if (e instanceof Vertex) {
+                framer = vertexFramers.get(e.label());
+            } else if (e instanceof Edge) {
+                framer = edgeFramers.get(e.label());
+            } else if (e instanceof VertexProperty) {
+                framer = vertexPropertyFramers.get(e.label());
+            }
+            return framer != null ? framer : framers.get(clazz);
+        }
+
+        private IFramer<?, ?> get(Class<?> clazz) {
+            return framers.get(clazz);
+        }
+    }
+
+}
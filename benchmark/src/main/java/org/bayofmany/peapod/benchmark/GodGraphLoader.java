@@ -20,75 +20,102 @@
  */
 package org.bayofmany.peapod.benchmark;
 
-import org.apache.tinkerpop.gremlin.structure.T;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import peapod.FramedBulkLoader;
+import peapod.FramedGraph;
+
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static peapod.FramedBulkLoader.edge;
+import static peapod.FramedBulkLoader.vertex;
 
 /**
  * Example Graph factory that creates a graph based on roman mythology.
+ * Usage: {@code GodGraphLoader [families]} loads the given number of copies of the mythology and prints the throughput.
  */
 public class GodGraphLoader {
 
+    public static void main(String[] args) {
+        int families = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+        System.out.println(load(TinkerGraph.open(), families));
+    }
+
     public static void load(final TinkerGraph graph) {
+        load(graph, 1);
+    }
 
-        // vertices
+    /**
+     * Loads the given number of copies of the mythology. Copies other than the first have their names suffixed.
+     */
+    public static FramedBulkLoader.Statistics load(final TinkerGraph graph, int families) {
         graph.createIndex("name", Vertex.class);
 
-        Vertex saturn = graph.addVertex(T.label, "god", "name", "saturn", "age", 10000, "type", "titan", "implementation_type", FermaGod.class.getName());
-
-        Vertex sky = graph.addVertex(T.label, "god", "name", "sky", "type", "location", "other", "more useless info");
-
-        Vertex sea = graph.addVertex(T.label, "god", "name", "sea", "type", "location");
-
-        Vertex jupiter = graph.addVertex(T.label, "god", "name", "jupiter", "age", 5000, "type", "god", "implementation_type", FermaGod.class.getName());
-
-        Vertex neptune = graph.addVertex(T.label, "god", "name", "neptune", "age", 4500, "type", "god", "implementation_type", FermaGod.class.getName());
-
-        Vertex hercules = graph.addVertex(T.label, "god", "name", "hercules", "age", 30, "type", "demigod", "implementation_type", FermaGod.class.getName());
-
-        Vertex alcmene = graph.addVertex(T.label, "god", "name", "alcmene", "age", 45, "type", "human", "implementation_type", FermaGod.class.getName());
-
-        Vertex pluto = graph.addVertex(T.label, "god", "name", "pluto", "age", 4000, "type", "god", "implementation_type", FermaGod.class.getName());
-
-        Vertex nemean = graph.addVertex(T.label, "god", "name", "nemean", "type", "monster", "implementation_type", FermaGod.class.getName());
-
-        Vertex hydra = graph.addVertex(T.label, "god", "name", "hydra", "type", "monster", "implementation_type", FermaGod.class.getName());
-
-        Vertex cerberus = graph.addVertex(T.label, "god", "name", "cerberus", "type", "monster", "implementation_type", FermaGod.class.getName());
-
-        Vertex tartarus = graph.addVertex(T.label, "god", "name", "tartarus", "type", "location", "implementation_type", FermaGod.class.getName());
-
-        Vertex nogod = graph.addVertex(T.label, "nogod", "name", "saturn", "type", "blabla", "implementation_type", FermaGod.class.getName());
-
-        // edges
-
-        jupiter.addEdge("father", saturn, "implementation_type", FatherEdge.class.getName());
-        jupiter.addEdge("lives", sky, "reason", "loves fresh breezes");
-        jupiter.addEdge("brother", neptune);
-        jupiter.addEdge("brother", pluto);
-
-        neptune.addEdge("father", saturn, "implementation_type", FatherEdge.class.getName());
-        neptune.addEdge("lives", sea, "reason", "loves waves");
-        neptune.addEdge("brother", jupiter);
-        neptune.addEdge("brother", pluto);
-
-        hercules.addEdge("father", jupiter, "implementation_type", FatherEdge.class.getName());
-        hercules.addEdge("lives", sky, "reason", "loves heights");
-        hercules.addEdge("battled", nemean, "time", 1);
-        hercules.addEdge("battled", hydra, "time", 2);
-        hercules.addEdge("battled", cerberus, "time", 12);
-
-        pluto.addEdge("father", saturn, "implementation_type", FatherEdge.class.getName());
-        pluto.addEdge("brother", jupiter);
-        pluto.addEdge("brother", neptune);
-        pluto.addEdge("lives", tartarus, "reason", "no fear of death");
-        pluto.addEdge("pet", cerberus);
-
-        cerberus.addEdge("lives", tartarus);
-        cerberus.addEdge("battled", alcmene, "time", 5);
+        FramedGraph framedGraph = new FramedGraph(graph, PeapodGod.class.getPackage());
+        FramedBulkLoader loader = framedGraph.bulkLoader().batchSize(100000);
+        loader.load(IntStream.range(0, families).boxed().flatMap(GodGraphLoader::family));
+        loader.close();
+        return loader.statistics();
+    }
 
-        // commit the transaction to disk
-        if (graph.features().graph().supportsTransactions())
-            graph.tx().commit();
+    static Stream<FramedBulkLoader.Spec> family(int family) {
+        String suffix = family == 0 ? "" : "-" + family;
+        String saturn = "saturn" + suffix;
+        String sky = "sky" + suffix;
+        String sea = "sea" + suffix;
+        String jupiter = "jupiter" + suffix;
+        String neptune = "neptune" + suffix;
+        String hercules = "hercules" + suffix;
+        String alcmene = "alcmene" + suffix;
+        String pluto = "pluto" + suffix;
+        String nemean = "nemean" + suffix;
+        String hydra = "hydra" + suffix;
+        String cerberus = "cerberus" + suffix;
+        String tartarus = "tartarus" + suffix;
+        String fermaGod = FermaGod.class.getName();
+        String fatherEdge = FatherEdge.class.getName();
+
+        return Stream.of(
+                // vertices
+                vertex(saturn, PeapodGod.class, "name", saturn, "age", 10000, "type", "titan", "implementation_type", fermaGod),
+                vertex(sky, PeapodGod.class, "name", sky, "type", "location", "other", "more useless info"),
+                vertex(sea, PeapodGod.class, "name", sea, "type", "location"),
+                vertex(jupiter, PeapodGod.class, "name", jupiter, "age", 5000, "type", "god", "implementation_type", fermaGod),
+                vertex(neptune, PeapodGod.class, "name", neptune, "age", 4500, "type", "god", "implementation_type", fermaGod),
+                vertex(hercules, PeapodGod.class, "name", hercules, "age", 30, "type", "demigod", "implementation_type", fermaGod),
+                vertex(alcmene, PeapodGod.class, "name", alcmene, "age", 45, "type", "human", "implementation_type", fermaGod),
+                vertex(pluto, PeapodGod.class, "name", pluto, "age", 4000, "type", "god", "implementation_type", fermaGod),
+                vertex(nemean, PeapodGod.class, "name", nemean, "type", "monster", "implementation_type", fermaGod),
+                vertex(hydra, PeapodGod.class, "name", hydra, "type", "monster", "implementation_type", fermaGod),
+                vertex(cerberus, PeapodGod.class, "name", cerberus, "type", "monster", "implementation_type", fermaGod),
+                vertex(tartarus, PeapodGod.class, "name", tartarus, "type", "location", "implementation_type", fermaGod),
+                vertex(null, "nogod", "name", saturn, "type", "blabla", "implementation_type", fermaGod),
+
+                // edges
+                edge("father", jupiter, saturn, "implementation_type", fatherEdge),
+                edge("lives", jupiter, sky, "reason", "loves fresh breezes"),
+                edge("brother", jupiter, neptune),
+                edge("brother", jupiter, pluto),
+
+                edge("father", neptune, saturn, "implementation_type", fatherEdge),
+                edge("lives", neptune, sea, "reason", "loves waves"),
+                edge("brother", neptune, jupiter),
+                edge("brother", neptune, pluto),
+
+                edge("father", hercules, jupiter, "implementation_type", fatherEdge),
+                edge("lives", hercules, sky, "reason", "loves heights"),
+                edge("battled", hercules, nemean, "time", 1),
+                edge("battled", hercules, hydra, "time", 2),
+                edge("battled", hercules, cerberus, "time", 12),
+
+                edge("father", pluto, saturn, "implementation_type", fatherEdge),
+                edge("brother", pluto, jupiter),
+                edge("brother", pluto, neptune),
+                edge("lives", pluto, tartarus, "reason", "no fear of death"),
+                edge("pet", pluto, cerberus),
+
+                edge("lives", cerberus, tartarus),
+                edge("battled", cerberus, alcmene, "time", 5));
     }
-}
\ No newline at end of file
+}
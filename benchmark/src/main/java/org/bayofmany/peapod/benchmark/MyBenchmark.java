@@ -34,6 +34,7 @@ import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.infra.Blackhole;
 
 import java.util.Iterator;
+import java.util.List;
 
 @State(Scope.Benchmark)
 public class MyBenchmark {
@@ -74,6 +75,19 @@ public class MyBenchmark {
         }
     }
 
+    @Benchmark
+    public void testGetFramedVerticesTypedPeapodPrefetched(Blackhole bh) {
+        PeapodGod god = peapodGraph.V(PeapodGod.class).has("name", "saturn").next();
+        bh.consume(god.getName());
+        List<PeapodGod> sons = god.getSons();
+        peapodGraph.prefetch(sons, "father");
+        for (PeapodGod child : sons) {
+            PeapodGod father = child.getParents().iterator().next();
+            bh.consume(father);
+        }
+        peapodGraph.clearAdjacencyCache();
+    }
+
     @Benchmark
     public void testGetFramedVerticesTypedFerma(Blackhole bh) {
         FermaGod god = fermaGraph.traverse(s -> s.V().hasLabel("god").has("name", "saturn")).frame(FermaGod.class).next();
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2015 Bay of Many
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * This project is derived from code in the Tinkerpop project under the following license:
+ *
+ *    Tinkerpop3
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.bayofmany.peapod.benchmark;
+
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.util.GraphFactory;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import peapod.FramedBulkLoader;
+import peapod.FramedGraph;
+
+import java.util.stream.IntStream;
+
+/**
+ * Measures the scaling of the parallel loader from 1 to N threads.
+ * Usage: {@code ParallelLoadBenchmark [families] [threads] [graph.properties]}.
+ * The graph is opened from the given configuration by {@link GraphFactory}, TinkerGraph by default, and emptied before
+ * every run. TinkerGraph does not support transactions and is always loaded by a single worker, so it only serves
+ * as a baseline.
+ */
+public class ParallelLoadBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int families = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        int maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        String configuration = args.length > 2 ? args[2] : null;
+
+        for (int threads = 1; threads <= maxThreads; threads = threads < maxThreads && threads * 2 > maxThreads ? maxThreads : threads * 2) {
+            try (Graph graph = configuration == null ? TinkerGraph.open() : GraphFactory.open(configuration)) {
+                clear(graph);
+                FramedGraph framedGraph = new FramedGraph(graph, PeapodGod.class.getPackage());
+                FramedBulkLoader.Statistics statistics = framedGraph.parallelLoader(threads).batchSize(10000)
+                        .load(IntStream.range(0, families).boxed().flatMap(GodGraphLoader::family));
+                System.out.println(threads + " threads: " + statistics);
+            }
+        }
+    }
+
+    private static void clear(Graph graph) {
+        graph.traversal().V().drop().iterate();
+        if (graph.features().graph().supportsTransactions()) {
+            graph.tx().commit();
+        }
+    }
+}
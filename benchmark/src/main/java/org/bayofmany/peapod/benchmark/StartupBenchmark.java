@@ -0,0 +1,64 @@
+/*
+ * Copyright 2015 Bay of Many
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * This project is derived from code in the Tinkerpop project under the following license:
+ *
+ *    Tinkerpop3
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ */
+
+package org.bayofmany.peapod.benchmark;
+
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.openjdk.jmh.annotations.*;
+import org.reflections.Reflections;
+import peapod.FramedGraph;
+import peapod.internal.runtime.Framer;
+import peapod.internal.runtime.FramerRegistry;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the framer registration via the compile-time generated framer index with the classpath scanning,
+ * and with the registry shared between framed graphs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class StartupBenchmark {
+
+    private TinkerGraph godGraph;
+
+    @Setup
+    public void init() {
+        godGraph = TinkerGraph.open();
+    }
+
+    @Benchmark
+    public FramedGraph testStartupShared() {
+        return new FramedGraph(godGraph, PeapodGod.class.getPackage());
+    }
+
+    @Benchmark
+    public FramerRegistry testStartupIndexed() {
+        return FramerRegistry.load(PeapodGod.class.getPackage());
+    }
+
+    @Benchmark
+    public FramerRegistry testStartupScanning() {
+        return FramerRegistry.fromClasses(new Reflections(PeapodGod.class.getPackage().getName() + ".").getTypesAnnotatedWith(Framer.class));
+    }
+
+}
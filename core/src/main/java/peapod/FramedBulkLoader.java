@@ -0,0 +1,428 @@
+/*
+ * Copyright 2015 Bay of Many
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * This project is derived from code in the TinkerPop project under the following license:
+ *
+ *    TinkerPop3
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ */
+
+package peapod;
+
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import peapod.internal.runtime.IFramer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * <p>Loads large amounts of vertices and edges, committing every {@link #batchSize(int) batch size} mutations.</p>
+ * <p>Vertices are identified by a key chosen by the caller, used to link them by edges later on in the same load.
+ * Existing vertices, framed or not, can be used as key as well.</p>
+ * <pre>
+ *     try (FramedBulkLoader loader = graph.bulkLoader().batchSize(50000)) {
+ *         loader.load(persons.stream().map(p -&gt; FramedBulkLoader.vertex(p.getId(), Person.class, "name", p.getName())));
+ *         loader.load(friends.stream().map(f -&gt; FramedBulkLoader.edge(Knows.class, f.getFrom(), f.getTo())));
+ *     }
+ * </pre>
+ * <p>Elements are created on the underlying graph without being framed. On graphs without transaction support,
+ * the created vertices are kept for the entire load instead of being looked up again after each commit.</p>
+ *
+ * @author Willem Salembier
+ * @see FramedGraph#bulkLoader()
+ * @since 0.4
+ */
+public class FramedBulkLoader implements AutoCloseable {
+
+    private static final int DEFAULT_BATCH_SIZE = 10000;
+
+    private final FramedGraph framedGraph;
+    private final Graph graph;
+    private final boolean transactional;
+
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private Consumer<Statistics> listener;
+
+    private final Map<Object, Object> ids;
+    private final Map<Object, Vertex> vertices = new HashMap<>();
+    private final List<Object> pendingKeys = new ArrayList<>();
+
+    private final long start = System.nanoTime();
+    private long vertexCount;
+    private long edgeCount;
+    private long commitCount;
+    private int pendingVertices;
+    private int pendingEdges;
+
+    FramedBulkLoader(FramedGraph framedGraph) {
+        this(framedGraph, new HashMap<>());
+    }
+
+    /**
+     * @param ids the ids by vertex key, shared by the loaders of a {@link FramedParallelLoader}
+     */
+    FramedBulkLoader(FramedGraph framedGraph, Map<Object, Object> ids) {
+        this.framedGraph = framedGraph;
+        this.graph = framedGraph.graph();
+        this.transactional = graph.features().graph().supportsTransactions();
+        this.ids = ids;
+    }
+
+    /**
+     * @param batchSize the number of vertices and edges added per transaction
+     * @return this loader
+     */
+    public FramedBulkLoader batchSize(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+        }
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    /**
+     * @param listener notified with the statistics after each commit
+     * @return this loader
+     */
+    public FramedBulkLoader onCommit(Consumer<Statistics> listener) {
+        this.listener = listener;
+        return this;
+    }
+
+    /**
+     * Loads all specs of the stream.
+     *
+     * @return the statistics of the load so far
+     */
+    public Statistics load(Stream<? extends Spec> specs) {
+        Iterator<? extends Spec> it = specs.iterator();
+        while (it.hasNext()) {
+            it.next().load(this);
+        }
+        return statistics();
+    }
+
+    /**
+     * Adds a vertex with the label of the given framed class.
+     *
+     * @param key       the key to refer to the vertex in this load, or {@code null}
+     * @param clazz     the framed vertex class
+     * @param keyValues the properties as alternating keys and values
+     * @return the id of the new vertex
+     */
+    public Object addVertex(Object key, Class<?> clazz, Object... keyValues) {
+        return addVertex(key, label(clazz, Vertex.class), keyValues);
+    }
+
+    /**
+     * Adds a vertex with the given label.
+     *
+     * @param key       the key to refer to the vertex in this load, or {@code null}
+     * @param label     the vertex label
+     * @param keyValues the properties as alternating keys and values
+     * @return the id of the new vertex
+     */
+    public Object addVertex(Object key, String label, Object... keyValues) {
+        Vertex vertex = graph.addVertex(labeled(label, keyValues));
+        if (key != null) {
+            ids.put(key, vertex.id());
+            vertices.put(key, vertex);
+            if (transactional) {
+                pendingKeys.add(key);
+            }
+        }
+        vertexCount++;
+        pendingVertices++;
+        mutated();
+        return vertex.id();
+    }
+
+    /**
+     * Adds an edge with the label of the given framed class.
+     *
+     * @param clazz     the framed edge class
+     * @param out       the key of the outgoing vertex
+     * @param in        the key of the incoming vertex
+     * @param keyValues the properties as alternating keys and values
+     */
+    public void addEdge(Class<?> clazz, Object out, Object in, Object... keyValues) {
+        addEdge(label(clazz, Edge.class), out, in, keyValues);
+    }
+
+    /**
+     * Adds an edge with the given label.
+     *
+     * @param label     the edge label
+     * @param out       the key of the outgoing vertex
+     * @param in        the key of the incoming vertex
+     * @param keyValues the properties as alternating keys and values
+     */
+    public void addEdge(String label, Object out, Object in, Object... keyValues) {
+        vertex(out).addEdge(label, vertex(in), keyValues);
+        edgeCount++;
+        pendingEdges++;
+        mutated();
+    }
+
+    /**
+     * @return the id of the vertex added with the given key, or {@code null} if unknown
+     */
+    public Object id(Object key) {
+        return ids.get(key);
+    }
+
+    /**
+     * Commits the pending mutations.
+     *
+     * @return the statistics of the load so far
+     */
+    public Statistics commit() {
+        if (transactional) {
+            graph.tx().commit();
+            vertices.clear();
+        }
+        commitCount++;
+        pendingKeys.clear();
+        pendingVertices = 0;
+        pendingEdges = 0;
+        Statistics statistics = statistics();
+        if (listener != null) {
+            listener.accept(statistics);
+        }
+        return statistics;
+    }
+
+    /**
+     * Rolls back the mutations since the last commit, forgetting the keys of the vertices added since.
+     *
+     * @throws IllegalStateException if the graph does not support transactions
+     */
+    public void rollback() {
+        if (!transactional) {
+            throw new IllegalStateException("Graph does not support transactions");
+        }
+        graph.tx().rollback();
+        vertices.clear();
+        pendingKeys.forEach(ids::remove);
+        pendingKeys.clear();
+        vertexCount -= pendingVertices;
+        edgeCount -= pendingEdges;
+        pendingVertices = 0;
+        pendingEdges = 0;
+    }
+
+    public Statistics statistics() {
+        return new Statistics(vertexCount, edgeCount, commitCount, 0, System.nanoTime() - start);
+    }
+
+    /**
+     * Commits the remaining mutations.
+     */
+    @Override
+    public void close() {
+        if (pendingVertices + pendingEdges > 0) {
+            commit();
+        }
+    }
+
+    private void mutated() {
+        if (pendingVertices + pendingEdges >= batchSize) {
+            commit();
+        }
+    }
+
+    private Vertex vertex(Object key) {
+        if (key instanceof FramedVertex) {
+            return ((FramedVertex) key).vertex();
+        } else if (key instanceof Vertex) {
+            return (Vertex) key;
+        }
+
+        Vertex vertex = vertices.get(key);
+        if (vertex == null) {
+            Object id = ids.get(key);
+            if (id == null) {
+                throw new IllegalArgumentException("No vertex loaded with key " + key);
+            }
+            Iterator<Vertex> it = graph.vertices(id);
+            if (!it.hasNext()) {
+                throw new IllegalStateException("Vertex with key " + key + " and id " + id + " no longer exists");
+            }
+            vertex = it.next();
+            vertices.put(key, vertex);
+        }
+        return vertex;
+    }
+
+    private String label(Class<?> clazz, Class<? extends Element> type) {
+        IFramer<Element, ?> framer = framedGraph.framer(clazz);
+        if (!type.isAssignableFrom(framer.type())) {
+            throw new IllegalArgumentException(clazz + " is not framing a " + type.getSimpleName());
+        }
+        return framer.label();
+    }
+
+    private static Object[] labeled(String label, Object[] keyValues) {
+        Object[] result = new Object[keyValues.length + 2];
+        result[0] = T.label;
+        result[1] = label;
+        System.arraycopy(keyValues, 0, result, 2, keyValues.length);
+        return result;
+    }
+
+    /**
+     * Specification of a vertex or edge to load.
+     */
+    @FunctionalInterface
+    public interface Spec {
+
+        void load(FramedBulkLoader loader);
+
+    }
+
+    public static VertexSpec vertex(Object key, Class<?> clazz, Object... keyValues) {
+        return new VertexSpec(key, loader -> loader.addVertex(key, clazz, keyValues));
+    }
+
+    public static VertexSpec vertex(Object key, String label, Object... keyValues) {
+        return new VertexSpec(key, loader -> loader.addVertex(key, label, keyValues));
+    }
+
+    public static EdgeSpec edge(Class<?> clazz, Object out, Object in, Object... keyValues) {
+        return new EdgeSpec(out, in, loader -> loader.addEdge(clazz, out, in, keyValues));
+    }
+
+    public static EdgeSpec edge(String label, Object out, Object in, Object... keyValues) {
+        return new EdgeSpec(out, in, loader -> loader.addEdge(label, out, in, keyValues));
+    }
+
+    /**
+     * Specification of a vertex, identified by its key.
+     */
+    public static final class VertexSpec implements Spec {
+
+        private final Object key;
+        private final Spec spec;
+
+        private VertexSpec(Object key, Spec spec) {
+            this.key = key;
+            this.spec = spec;
+        }
+
+        public Object key() {
+            return key;
+        }
+
+        @Override
+        public void load(FramedBulkLoader loader) {
+            spec.load(loader);
+        }
+    }
+
+    /**
+     * Specification of an edge between the vertices with the given keys.
+     */
+    public static final class EdgeSpec implements Spec {
+
+        private final Object out;
+        private final Object in;
+        private final Spec spec;
+
+        private EdgeSpec(Object out, Object in, Spec spec) {
+            this.out = out;
+            this.in = in;
+            this.spec = spec;
+        }
+
+        public Object out() {
+            return out;
+        }
+
+        public Object in() {
+            return in;
+        }
+
+        @Override
+        public void load(FramedBulkLoader loader) {
+            spec.load(loader);
+        }
+    }
+
+    /**
+     * The number of elements loaded and the throughput.
+     */
+    public static final class Statistics {
+
+        private final long vertices;
+        private final long edges;
+        private final long commits;
+        private final long retries;
+        private final long elapsedNanos;
+
+        Statistics(long vertices, long edges, long commits, long retries, long elapsedNanos) {
+            this.vertices = vertices;
+            this.edges = edges;
+            this.commits = commits;
+            this.retries = retries;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public long vertices() {
+            return vertices;
+        }
+
+        public long edges() {
+            return edges;
+        }
+
+        public long commits() {
+            return commits;
+        }
+
+        /**
+         * @return the number of batches loaded again after a failed commit
+         */
+        public long retries() {
+            return retries;
+        }
+
+        public long elapsed(TimeUnit unit) {
+            return unit.convert(elapsedNanos, TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * @return the number of vertices and edges loaded per second
+         */
+        public double throughput() {
+            return elapsedNanos == 0 ? 0 : (vertices + edges) * 1e9 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d vertices, %d edges, %d commits, %d retries in %d ms (%.0f elements/s)",
+                    vertices, edges, commits, retries, elapsed(TimeUnit.MILLISECONDS), throughput());
+        }
+    }
+}
@@ -22,7 +22,11 @@
 package peapod;
 
 import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.T;
 import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Graph;
@@ -31,20 +35,21 @@ import org.apache.tinkerpop.gremlin.structure.Graph.Variables;
 import org.apache.tinkerpop.gremlin.structure.Transaction;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.commons.configuration.Configuration;
-import org.reflections.Reflections;
-import peapod.internal.runtime.Framer;
+import peapod.internal.runtime.AdjacencyCache;
+import peapod.internal.runtime.DirtyTracking;
 import peapod.internal.runtime.FramerRegistry;
 import peapod.internal.runtime.IFramer;
+import peapod.internal.runtime.IdentityMap;
+import peapod.internal.runtime.LazyVertex;
+import peapod.internal.runtime.TransactionClock;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Iterator;
-import java.util.List;
+import java.util.*;
 
 /**
  * <p>A framed instance of a TinkerPop 3 graph.</p>
  * <p>Allows to query the graph and return framed objects instead of TinkerPop 3 {@code vertices} and {@code edges}</p>
- * <p>The provided package is used to recursively scan all {@code @Vertex}, {@code @VertexProperties} and {@code @Edge} classes.</p>
+ * <p>The provided package is used to recursively look up all {@code @Vertex}, {@code @VertexProperties} and {@code @Edge} classes.
+ * The framer index generated at compile-time is used when present, otherwise the classpath is scanned.</p>
  * <pre>
  *     FramedGraph graph = new FramedGraph(TinkerGraph.open(), Person.class.getPackage());
  *
@@ -61,17 +66,201 @@ import java.util.List;
  */
 public class FramedGraph implements AutoCloseable {
 
+    private static final String PREFETCH_VERTEX = "peapod-vertex";
+    private static final String PREFETCH_EDGES = "peapod-edges";
+
     private final Graph graph;
 
     private final GraphTraversalSource traversal;
 
-    private FramerRegistry registry = new FramerRegistry();
+    private final FramerRegistry registry;
+
+    private final ThreadLocal<ThreadState> state;
 
+    // the maximum size of the identity maps, or 0 when disabled
+    private volatile int identityMapSize;
 
     public FramedGraph(Graph graph, Package pakkage) {
+        this(graph, FramerRegistry.forPackages(pakkage));
+    }
+
+    /**
+     * Frames the graph with a prebuilt registry. The registry is immutable and can be shared by many framed graphs,
+     * e.g. one framed graph per request or tenant.
+     *
+     * @param graph    the graph to frame
+     * @param registry the framers, see {@link FramerRegistry#forPackages(Package...)}
+     */
+    public FramedGraph(Graph graph, FramerRegistry registry) {
         this.graph = graph;
         this.traversal = graph.traversal();
-        this.registry.register(new Reflections(pakkage.getName() + ".").getTypesAnnotatedWith(Framer.class));
+        this.registry = registry;
+        this.state = ThreadLocal.withInitial(() -> new ThreadState(TransactionClock.of(graph)));
+    }
+
+    /**
+     * <p>Enables the identity map: framing the same vertex or edge again returns the same framed instance.</p>
+     * <p>The identity map is bound to the current thread and cleared when its transaction is committed or rolled back.
+     * For graphs without transaction support it must be cleared with {@link #clearIdentityMap()}.
+     * It holds at most {@code maxSize} vertices and edges, which are softly referenced.</p>
+     *
+     * @param maxSize the maximum number of framed vertices and edges kept
+     * @return this framed graph
+     */
+    public FramedGraph useIdentityMap(int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Identity map size must be positive: " + maxSize);
+        }
+        this.identityMapSize = maxSize;
+        return this;
+    }
+
+    /**
+     * Clears the identity map of the current thread, if enabled.
+     */
+    public void clearIdentityMap() {
+        IdentityMap map = identityMap();
+        if (map != null) {
+            map.clear();
+        }
+    }
+
+    /**
+     * @return the identity map of the current thread, or {@code null} when disabled
+     */
+    private IdentityMap identityMap() {
+        int size = identityMapSize;
+        if (size == 0) {
+            return null;
+        }
+        ThreadState state = state();
+        if (state.identityMap == null || state.identityMapSize != size) {
+            state.identityMap = new IdentityMap(size);
+            state.identityMapSize = size;
+        }
+        return state.identityMap;
+    }
+
+    /**
+     * @return the state of the current thread, after discarding the state of its ended transactions
+     */
+    private ThreadState state() {
+        ThreadState state = this.state.get();
+        long epoch = state.clock.epoch();
+        if (state.epoch != epoch) {
+            if (state.identityMap != null) {
+                state.identityMap.clear();
+            }
+            if (state.adjacencyCache != null) {
+                state.adjacencyCache.clear();
+            }
+            state.epoch = epoch;
+        }
+        return state;
+    }
+
+    /**
+     * Loads the outgoing edges with the given label of all given vertices in a single traversal.
+     *
+     * @param vertices the framed vertices
+     * @param label    the edge label
+     * @see #prefetch(Collection, Direction, String)
+     */
+    public void prefetch(Collection<?> vertices, String label) {
+        prefetch(vertices, Direction.OUT, label);
+    }
+
+    /**
+     * <p>Loads the edges with the given label and direction of all given vertices in a single traversal, instead of
+     * one query per vertex when calling their getters.</p>
+     * <pre>
+     *     List&lt;Person&gt; persons = graph.V(Person.class).toList();
+     *     graph.prefetch(persons, "knows");
+     *     persons.forEach(p -&gt; p.getKnows()); // answered from the adjacency cache
+     * </pre>
+     * <p>The generated getters of linked vertices and edges with the same label and direction consult the adjacency
+     * cache first. The adjacency cache is bound to the current thread and cleared when its transaction is committed or
+     * rolled back. Generated methods adding or removing edges discard the cached edges with their label.
+     * For graphs without transaction support it must be cleared with {@link #clearAdjacencyCache()}.</p>
+     *
+     * @param vertices  the framed vertices
+     * @param direction the direction of the edges, seen from the given vertices
+     * @param label     the edge label
+     */
+    @SuppressWarnings("unchecked")
+    public void prefetch(Collection<?> vertices, Direction direction, String label) {
+        if (vertices.isEmpty()) {
+            return;
+        }
+        ThreadState state = state();
+        if (state.adjacencyCache == null) {
+            state.adjacencyCache = new AdjacencyCache();
+        }
+
+        AdjacencyCache cache = state.adjacencyCache;
+        Object[] starts = vertices.stream().map(v -> v instanceof FramedElement ? ((FramedElement) v).element() : v).toArray();
+        GraphTraversal<Vertex, Edge> edges = direction == Direction.OUT ? __.outE(label) : direction == Direction.IN ? __.inE(label) : __.bothE(label);
+        traversal.V(starts).project(PREFETCH_VERTEX, PREFETCH_EDGES).by().by(edges.fold())
+                .forEachRemaining(m -> cache.put((Vertex) m.get(PREFETCH_VERTEX), direction, label, (List<Edge>) m.get(PREFETCH_EDGES)));
+    }
+
+    /**
+     * @return the adjacency cache of the current thread, or {@code null} when nothing was prefetched
+     */
+    public AdjacencyCache adjacencyCache() {
+        return state().adjacencyCache;
+    }
+
+    /**
+     * Clears the adjacency cache of the current thread.
+     */
+    public void clearAdjacencyCache() {
+        AdjacencyCache cache = state().adjacencyCache;
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * Registers a framed instance with pending property values, to be written by the next {@link #flush()}.
+     * Called by the generated setters of {@link peapod.annotations.WriteBehind} classes.
+     */
+    public void markDirty(DirtyTracking frame) {
+        state.get().clock.dirty().add(frame);
+    }
+
+    /**
+     * Writes the pending property values of all {@link peapod.annotations.WriteBehind} instances changed by the
+     * current thread on the graph, one element at a time. Framed graphs of the same graph share the pending instances
+     * of a thread, as they share its transaction.
+     */
+    public void flush() {
+        List<DirtyTracking> frames = state.get().clock.dirty();
+        frames.forEach(DirtyTracking::flush);
+        frames.clear();
+    }
+
+    /**
+     * Flushes the pending property values and commits the transaction of the current thread, if supported.
+     *
+     * @see #flush()
+     */
+    public void commit() {
+        flush();
+        if (graph.features().graph().supportsTransactions()) {
+            graph.tx().commit();
+        }
+    }
+
+    /**
+     * Identifies the current transaction of the current thread. A new, globally unique epoch starts whenever
+     * the current thread commits or rolls back a transaction. Used by the generated {@link peapod.annotations.Cached}
+     * property getters to discard their values at transaction boundaries.
+     *
+     * @return the epoch of the current thread, always positive
+     */
+    public long epoch() {
+        return state.get().clock.epoch();
     }
 
     /**
@@ -84,7 +273,7 @@ public class FramedGraph implements AutoCloseable {
     public <V> V addVertex(Class<V> clazz) {
         IFramer<Element, V> framer = registry.get(clazz);
         Vertex v = graph.addVertex(framer.label());
-        return framer.frameNew(v, this);
+        return frameNew(v, framer);
     }
 
     /**
@@ -99,7 +288,22 @@ public class FramedGraph implements AutoCloseable {
     public <V> V addVertex(Class<V> clazz, Object id) {
         IFramer<Element, V> framer = registry.get(clazz);
         Vertex v = graph.addVertex(T.id, id, T.label, framer.label());
-        return framer.frameNew(v, this);
+        return frameNew(v, framer);
+    }
+
+    /**
+     * @return a new loader to add many vertices and edges in batched transactions
+     */
+    public FramedBulkLoader bulkLoader() {
+        return new FramedBulkLoader(this);
+    }
+
+    /**
+     * @param threads the number of workers, each loading in its own transaction
+     * @return a new loader to add many vertices and edges in parallel
+     */
+    public FramedParallelLoader parallelLoader(int threads) {
+        return new FramedParallelLoader(this, threads);
     }
 
     @SuppressWarnings("unchecked")
@@ -134,29 +338,138 @@ public class FramedGraph implements AutoCloseable {
         return tr.hasNext() ? frame(tr.next(), clazz) : null;
     }
 
+    /**
+     * Get the vertices with the given unique identifiers, in a single lookup instead of one lookup per identifier.
+     *
+     * @param <V>   Framing class annotated with  {@link peapod.annotations.Vertex}
+     * @param ids   the unique identifiers of the vertices, or the vertices or framed vertices themselves
+     * @param clazz a framing class annotated with {@link peapod.annotations.Vertex}
+     * @return the framed vertices in the order of the identifiers, with {@code null} for each identifier not found
+     */
+    public <V> List<V> v(Collection<?> ids, Class<V> clazz) {
+        Map<Object, Vertex> vertices = vertices(ids);
+        List<V> result = new ArrayList<>(ids.size());
+        for (Object id : ids) {
+            Vertex vertex = vertices.get(id);
+            result.add(vertex == null ? null : frame(vertex, clazz));
+        }
+        return result;
+    }
+
+    /**
+     * Get the vertices with the given unique identifiers, in a single lookup instead of one lookup per identifier.
+     *
+     * @param <V>   Framing class annotated with  {@link peapod.annotations.Vertex}
+     * @param ids   the unique identifiers of the vertices, or the vertices or framed vertices themselves
+     * @param clazz a framing class annotated with {@link peapod.annotations.Vertex}
+     * @return the framed vertices by identifier, in the order of the identifiers. Identifiers not found are absent.
+     */
+    public <V> Map<Object, V> vMap(Collection<?> ids, Class<V> clazz) {
+        Map<Object, V> result = new LinkedHashMap<>();
+        vertices(ids).forEach((id, vertex) -> result.put(id, frame(vertex, clazz)));
+        return result;
+    }
+
+    private Map<Object, Vertex> vertices(Collection<?> ids) {
+        if (ids.isEmpty()) {
+            // graph.vertices() without ids returns all vertices
+            return Collections.emptyMap();
+        }
+
+        Map<Object, Vertex> found = new HashMap<>();
+        graph.vertices(ids.stream().map(FramedGraph::elementId).distinct().toArray()).forEachRemaining(v -> found.put(v.id(), v));
+
+        Map<Object, Vertex> result = new LinkedHashMap<>();
+        Map<String, Vertex> foundByString = null;
+        for (Object id : ids) {
+            Object elementId = elementId(id);
+            Vertex vertex = found.get(elementId);
+            if (vertex == null && elementId != null && !found.isEmpty()) {
+                // the backend may return another id type than requested, e.g. a Long for an Integer
+                if (foundByString == null) {
+                    foundByString = new HashMap<>();
+                    for (Vertex v : found.values()) {
+                        foundByString.put(v.id().toString(), v);
+                    }
+                }
+                vertex = foundByString.get(elementId.toString());
+            }
+            if (vertex != null) {
+                result.put(id, vertex);
+            }
+        }
+        return result;
+    }
+
+    private static Object elementId(Object id) {
+        if (id instanceof FramedElement) {
+            return ((FramedElement) id).element().id();
+        } else if (id instanceof Element) {
+            return ((Element) id).id();
+        } else {
+            return id;
+        }
+    }
+
     public <F, E extends Element> F frame(E e) {
         IFramer<E, F> framer = registry.get(e, null);
-        return framer.frame(e, this);
+        return frame(e, framer);
     }
 
     public <F, E extends Element> F frame(E e, Class<F> clazz) {
         IFramer<E, F> framer = registry.get(e, clazz);
-        return framer.frame(e, this);
+        return frame(e, framer);
+    }
+
+    /**
+     * Frames a {@link LazyVertex} reference to the vertex with the given id, without loading the vertex. The vertex is
+     * only looked up for its label when the class has framed sub classes with other labels.
+     * Called by the generated {@link peapod.annotations.Lazy} reference getters.
+     */
+    public <F> F reference(Object id, Class<F> clazz) {
+        String[] labels = registry.labels(clazz);
+        return frame(new LazyVertex(graph, id, labels != null && labels.length == 1 ? labels[0] : null), clazz);
     }
 
     public <F, E extends Element> List<F> frame(Iterator<E> it, Class<F> clazz) {
         List<F> result = new ArrayList<>();
         it.forEachRemaining(e -> {
             IFramer<E, F> framer = registry.get(e, clazz);
-            result.add(framer.frame(e, this));
+            result.add(frame(e, framer));
         });
         return Collections.unmodifiableList(result);
     }
 
+    /**
+     * Frames the element with the given framer, without looking it up in the registry.
+     * Used by the generated code when the framer is known at compile-time.
+     *
+     * @param e      the vertex or edge to frame
+     * @param framer the framer of the element's label
+     * @return the framed element
+     */
+    public <F, E extends Element> F frame(E e, IFramer<E, F> framer) {
+        IdentityMap map = identityMap();
+        return map == null ? framer.frame(e, this) : map.frame(e, framer, this);
+    }
+
+    private <F, E extends Element> F frameNew(E e, IFramer<E, F> framer) {
+        F f = framer.frameNew(e, this);
+        IdentityMap map = identityMap();
+        if (map != null) {
+            map.put(e, f);
+        }
+        return f;
+    }
+
     protected <F, E extends Element> IFramer<E, F> framer(Class<F> clazz) {
         return registry.get(clazz);
     }
 
+    protected <F, E extends Element> IFramer<E, F> framer(E e, Class<F> clazz) {
+        return registry.get(e, clazz);
+    }
+
     /**
      * Configure and control the transactions for those graphs that support this feature.
      *
@@ -207,12 +520,40 @@ public class FramedGraph implements AutoCloseable {
         return graph;
     }
 
-    protected GraphTraversalSource traversal() {
+    /**
+     * @return the traversal source of the underlying graph, used by the generated typed traversals
+     */
+    public GraphTraversalSource traversal() {
         return traversal;
     }
 
     @Override
     public void close() throws Exception {
+        state.remove();
         graph.close();
     }
+
+    /**
+     * The state of the framed graph bound to a thread, discarded at the transaction boundaries of its
+     * {@link TransactionClock}.
+     */
+    private static final class ThreadState {
+
+        private final TransactionClock clock;
+
+        // the epoch the state belongs to
+        private long epoch;
+
+        private IdentityMap identityMap;
+
+        private int identityMapSize;
+
+        private AdjacencyCache adjacencyCache;
+
+        private ThreadState(TransactionClock clock) {
+            this.clock = clock;
+            this.epoch = clock.epoch();
+        }
+    }
+
 }
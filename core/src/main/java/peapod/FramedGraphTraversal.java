@@ -21,18 +21,26 @@
 
 package peapod;
 
+import org.apache.tinkerpop.gremlin.process.traversal.Order;
 import org.apache.tinkerpop.gremlin.process.traversal.P;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.OrStep;
 import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Property;
 import org.apache.tinkerpop.gremlin.structure.T;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
+import peapod.internal.runtime.IFramer;
+import peapod.internal.runtime.Prefetchable;
+import peapod.internal.runtime.Rebindable;
 
 import java.util.*;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Defines the framed graph traversals and keeps track of the traversed framed classes.
@@ -42,7 +50,10 @@ import java.util.stream.Collectors;
  * @since 0.1
  */
 @SuppressWarnings({"unchecked", "unused"})
-public class FramedGraphTraversal<F> implements Iterator<F> {
+public class FramedGraphTraversal<F> implements Iterator<F>, AutoCloseable {
+
+    private static final String PREFETCH_ELEMENT = "peapod-element";
+    private static final String PREFETCH_PROPERTIES = "peapod-properties";
 
     private GraphTraversal<?, ?> traversal;
     private FramedGraph graph;
@@ -51,6 +62,24 @@ public class FramedGraphTraversal<F> implements Iterator<F> {
 
     private boolean framed;
 
+    private boolean distinct;
+
+    private boolean started;
+
+    private String[] prefetchKeys;
+
+    private boolean prefetching;
+
+    // whether the traversal emits elements rather than values, as required by keyset pagination
+    private boolean elements = true;
+
+    // the index of the last order step, and the property and order of its single by modulator
+    private int orderStep = -1;
+
+    private String orderKey;
+
+    private Order order;
+
     private Map<String, Class<?>> stepLabel2FrameClass = new HashMap<>();
 
     FramedGraphTraversal(GraphTraversal<Vertex, Vertex> traversal, FramedGraph graph) {
@@ -91,6 +120,8 @@ public class FramedGraphTraversal<F> implements Iterator<F> {
 
     public <E2> FramedGraphTraversal<E2> values(final String... propertyKeys) {
         this.lastFramingClass = null;
+        this.distinct = false;
+        this.elements = false;
         traversal.values(propertyKeys);
         return (FramedGraphTraversal<E2>) this;
     }
@@ -103,22 +134,28 @@ public class FramedGraphTraversal<F> implements Iterator<F> {
     public <F2> FramedGraphTraversal<F2> in(final String edgeLabel, Class<F2> clazz) {
         traversal.in(edgeLabel);
         this.lastFramingClass = clazz;
+        this.distinct = false;
+        this.elements = true;
         return (FramedGraphTraversal<F2>) this;
     }
 
     public <F2> FramedGraphTraversal<F2> out(final String edgeLabel, Class<F2> clazz) {
         traversal.out(edgeLabel);
         this.lastFramingClass = clazz;
+        this.distinct = false;
+        this.elements = true;
         return (FramedGraphTraversal<F2>) this;
     }
 
     public FramedGraphTraversal<F> out(String... edgeLabels) {
         traversal.out(edgeLabels);
+        this.distinct = false;
         return this;
     }
 
     public FramedGraphTraversal<F> in(String... edgeLabels) {
         traversal.in(edgeLabels);
+        this.distinct = false;
         return this;
     }
 
@@ -130,15 +167,138 @@ public class FramedGraphTraversal<F> implements Iterator<F> {
 
     public <F2> FramedGraphTraversal<F2> back(final String label) {
         lastFramingClass = stepLabel2FrameClass.get(label);
+        distinct = false;
         traversal.select(label);
         return (FramedGraphTraversal<F2>) this;
     }
 
+    /**
+     * <p>Fetches the given properties of the traversed vertices within this traversal, instead of querying each framed
+     * vertex for each property afterwards. The single-valued property getters of the framed vertices answer the prefetched
+     * values from memory, until the property is set.</p>
+     * <pre>
+     *     List&lt;Person&gt; persons = graph.V(Person.class).prefetch("name", "age").toList();
+     * </pre>
+     * <p>The properties are fetched with a {@code project().by().by(valueMap(propertyKeys))} step appended when the
+     * traversal starts iterating, so it can be called anywhere before the first framed vertex is requested.</p>
+     *
+     * @param propertyKeys the keys of the properties to fetch
+     * @return this traversal
+     */
+    public FramedGraphTraversal<F> prefetch(String... propertyKeys) {
+        if (started) {
+            throw new IllegalStateException("The traversal is already iterating");
+        }
+        this.prefetchKeys = propertyKeys;
+        return this;
+    }
+
     public FramedGraphTraversal<F> dedup() {
         traversal.dedup();
+        this.distinct = true;
+        return this;
+    }
+
+    public FramedGraphTraversal<F> limit(long limit) {
+        traversal.limit(limit);
+        return this;
+    }
+
+    public FramedGraphTraversal<F> range(long low, long high) {
+        traversal.range(low, high);
+        return this;
+    }
+
+    /**
+     * Orders the elements by the properties of the following {@link #by(String)} steps.
+     *
+     * @return this traversal
+     */
+    public FramedGraphTraversal<F> order() {
+        orderStep = traversal.asAdmin().getSteps().size();
+        orderKey = null;
+        order = null;
+        traversal.order();
+        return this;
+    }
+
+    public FramedGraphTraversal<F> by(String key) {
+        return by(key, Order.incr);
+    }
+
+    public FramedGraphTraversal<F> by(String key, Order order) {
+        if (orderStep < 0) {
+            throw new IllegalStateException("The by step must follow an order step");
+        }
+        traversal.by(key, order);
+        // keyset pagination only supports a single order property
+        this.orderKey = this.order == null ? key : null;
+        this.order = order;
         return this;
     }
 
+    /**
+     * <p>Fetches a page of a traversal ordered by a single property, starting after the continuation of the previous
+     * page. Elements sharing the order key are ordered by their id, so ties are neither skipped nor repeated. The
+     * filter on the key is inserted before the order step, so indexed backends only read the page instead of skipping
+     * all previous pages.</p>
+     * <pre>
+     * Page&lt;Person&gt; page = graph.V(Person.class).order().by("email").page(100, null);
+     * Page&lt;Person&gt; next = graph.V(Person.class).order().by("email").page(100, page.continuation());
+     * </pre>
+     *
+     * @param size  the maximum number of elements of the page
+     * @param after the continuation of the previous page, or {@code null} for the first page
+     * @return the page, with a continuation when more elements follow
+     * @throws IllegalStateException when the traversal does not end with an order step by a single property of
+     *                               elements, or an element lacks the order property
+     */
+    public Page<F> page(int size, Continuation after) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be positive: " + size);
+        }
+        if (orderKey == null || orderStep != traversal.asAdmin().getSteps().size() - 1) {
+            throw new IllegalStateException("Keyset pagination requires the traversal to end with an order step by a single property");
+        }
+        if (!elements) {
+            throw new IllegalStateException("Keyset pagination requires a traversal of elements, not of values");
+        }
+        if (started) {
+            throw new IllegalStateException("The traversal is already iterating");
+        }
+
+        traversal.by(T.id, order);
+        if (after != null) {
+            boolean descending = order == Order.decr;
+            Traversal.Admin<?, ?> admin = traversal.asAdmin();
+            admin.addStep(orderStep, new OrStep<>(admin,
+                    __.has(orderKey, descending ? P.lt(after.key()) : P.gt(after.key())),
+                    __.has(orderKey, after.key()).has(T.id, descending ? P.lt(after.id()) : P.gt(after.id()))));
+        }
+        traversal.limit(size + 1L);
+        start();
+
+        List<F> elements = new ArrayList<>(size);
+        Continuation last = null;
+        boolean more = false;
+        while (traversal.hasNext()) {
+            Object e = traversal.next();
+            if (elements.size() == size) {
+                more = true;
+                break;
+            }
+            Element element = (Element) (prefetching && e instanceof Map ? ((Map<String, Object>) e).get(PREFETCH_ELEMENT) : e);
+            Property<Object> key = element.property(orderKey);
+            if (!key.isPresent()) {
+                throw new IllegalStateException("Element " + element.id() + " has no order property " + orderKey);
+            }
+            last = new Continuation(key.value(), element.id());
+            elements.add(frame(e));
+        }
+        close();
+        return new Page<>(Collections.unmodifiableList(elements), more ? last : null);
+    }
+
     /*public FramedGraphTraversal<S, E, F> except(String variable) {
         traversal.except(variable);
         return this;
@@ -155,27 +315,76 @@ public class FramedGraphTraversal<F> implements Iterator<F> {
     }*/
 
     public List<F> toList() {
-        if (lastFramingClass == null) {
-            return (List<F>) traversal.toList();
-        } else {
-            return traversal.toList().stream().map(this::frame).collect(Collectors.toList());
-        }
+        return fill(new ArrayList<>());
     }
 
     public Set<F> toSet() {
-        if (lastFramingClass == null) {
-            return (Set<F>) traversal.toList();
-        } else {
-            return traversal.toList().stream().map(this::frame).collect(Collectors.toSet());
+        return fill(new HashSet<>());
+    }
+
+    /**
+     * Adds all remaining framed elements to the given collection.
+     *
+     * @param collection the collection to fill
+     * @param <C>        the collection type
+     * @return the given collection
+     */
+    public <C extends Collection<? super F>> C fill(C collection) {
+        forEachRemaining(collection::add);
+        return collection;
+    }
+
+    /**
+     * Lazily frames the remaining elements while the stream is consumed. Closing the stream closes the traversal.
+     *
+     * @return a sequential stream of the framed elements
+     */
+    public Stream<F> stream() {
+        int characteristics = Spliterator.ORDERED | Spliterator.NONNULL | (distinct ? Spliterator.DISTINCT : 0);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, characteristics), false).onClose(this::close);
+    }
+
+    /**
+     * @return a sequential stream of the framed elements
+     * @see #stream()
+     */
+    public Stream<F> toStream() {
+        return stream();
+    }
+
+    /**
+     * Frames the remaining elements and passes them to the consumer in batches of at most {@code batchSize} elements,
+     * so that only one batch is held in memory at a time.
+     *
+     * @param batchSize the maximum number of elements per batch
+     * @param consumer  the batch consumer
+     */
+    public void iterate(int batchSize, Consumer<List<F>> consumer) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+        }
+
+        List<F> batch = new ArrayList<>(batchSize);
+        while (hasNext()) {
+            batch.add(next());
+            if (batch.size() == batchSize) {
+                consumer.accept(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            consumer.accept(batch);
         }
     }
 
     @Override
     public boolean hasNext() {
+        start();
         return traversal.hasNext();
     }
 
     public F next() {
+        start();
         return frame(traversal.next());
     }
 
@@ -186,7 +395,70 @@ public class FramedGraphTraversal<F> implements Iterator<F> {
 
     @Override
     public void forEachRemaining(Consumer<? super F> action) {
-        traversal.forEachRemaining(e -> action.accept(frame((Element) e)));
+        start();
+        traversal.forEachRemaining(e -> action.accept(frame(e)));
+    }
+
+    /**
+     * Scans the remaining elements with one reusable frame per framed class. The frame passed to the action is
+     * re-pointed at the next element once the action returns, so it must not escape the action: it must not be
+     * stored, collected or used by another thread. Frames are not registered in the identity map.
+     *
+     * @param action the action called with the cursor frame of each element
+     */
+    public void forEachCursor(Consumer<? super F> action) {
+        start();
+        Map<IFramer<?, ?>, Object> cursors = new IdentityHashMap<>();
+        traversal.forEachRemaining(e -> action.accept(cursor(e, cursors)));
+    }
+
+    private F cursor(Object e, Map<IFramer<?, ?>, Object> cursors) {
+        Map<String, Object> properties = null;
+        if (prefetching && e instanceof Map) {
+            Map<String, Object> projection = (Map<String, Object>) e;
+            properties = (Map<String, Object>) projection.get(PREFETCH_PROPERTIES);
+            e = projection.get(PREFETCH_ELEMENT);
+        }
+        if (!(e instanceof Element)) {
+            return (F) e;
+        }
+
+        Element element = (Element) e;
+        IFramer<Element, F> framer = graph.framer(element, (Class<F>) lastFramingClass);
+        F framed = (F) cursors.get(framer);
+        if (framed instanceof Rebindable) {
+            ((Rebindable) framed).rebind(element);
+        } else {
+            framed = framer.frame(element, graph);
+            cursors.put(framer, framed);
+        }
+        if (properties != null && framed instanceof Prefetchable) {
+            ((Prefetchable) framed).prefetched(prefetched(properties));
+        }
+        return framed;
+    }
+
+    private void start() {
+        if (started) {
+            return;
+        }
+        started = true;
+
+        if (prefetchKeys != null && lastFramingClass != null && Vertex.class.equals(graph.framer(lastFramingClass).type())) {
+            traversal.project(PREFETCH_ELEMENT, PREFETCH_PROPERTIES).by().by(__.valueMap(prefetchKeys));
+            prefetching = true;
+        }
+    }
+
+    @Override
+    public void close() {
+        if (traversal instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) traversal).close();
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        }
     }
 
     public Optional<F> tryNext() {
@@ -195,6 +467,8 @@ public class FramedGraphTraversal<F> implements Iterator<F> {
 
     public FramedGraphTraversal<Long> count() {
         this.lastFramingClass = null;
+        this.distinct = false;
+        this.elements = false;
 
         traversal.count();
         return (FramedGraphTraversal<Long>) this;
@@ -205,19 +479,122 @@ public class FramedGraphTraversal<F> implements Iterator<F> {
         String label = graph.framer(framingClass).label();
         traversal.properties(label);
         this.lastFramingClass = framingClass;
+        this.distinct = false;
+        this.elements = true;
         return (FramedGraphTraversal<E2>) this;
     }
 
     public <E2> FramedGraphTraversal<F> value() {
         traversal.value();
+        this.distinct = false;
+        this.elements = false;
         return this;
     }
 
     protected F frame(Object e) {
-        if (e instanceof Element) {
+        if (prefetching && e instanceof Map) {
+            Map<String, Object> projection = (Map<String, Object>) e;
+            F framed = graph.frame((Element) projection.get(PREFETCH_ELEMENT), (Class<F>) lastFramingClass);
+            if (framed instanceof Prefetchable) {
+                ((Prefetchable) framed).prefetched(prefetched((Map<String, Object>) projection.get(PREFETCH_PROPERTIES)));
+            }
+            return framed;
+        } else if (e instanceof Element) {
             return graph.frame((Element) e, (Class<F>) lastFramingClass);
         } else {
             return (F) e;
         }
     }
-}
\ No newline at end of file
+
+    private Map<String, Object> prefetched(Map<String, Object> valueMap) {
+        Map<String, Object> properties = new HashMap<>();
+        for (String key : prefetchKeys) {
+            Object value = valueMap.get(key);
+            if (value instanceof List) {
+                List<?> values = (List<?>) value;
+                value = values.isEmpty() ? null : values.get(0);
+            }
+            properties.put(key, value);
+        }
+        return properties;
+    }
+
+    /**
+     * A page of a keyset paginated traversal.
+     *
+     * @param <F> the framed class
+     * @see #page(int, Continuation)
+     */
+    public static final class Page<F> {
+
+        private final List<F> elements;
+        private final Continuation continuation;
+
+        Page(List<F> elements, Continuation continuation) {
+            this.elements = elements;
+            this.continuation = continuation;
+        }
+
+        public List<F> elements() {
+            return elements;
+        }
+
+        /**
+         * @return the position of the last element, to pass as {@code after} for the next page,
+         * or {@code null} when this is the last page
+         */
+        public Continuation continuation() {
+            return continuation;
+        }
+
+        public boolean hasMore() {
+            return continuation != null;
+        }
+    }
+
+    /**
+     * The order key and id of the last element of a page.
+     *
+     * @see #page(int, Continuation)
+     */
+    public static final class Continuation {
+
+        private final Object key;
+        private final Object id;
+
+        public Continuation(Object key, Object id) {
+            this.key = key;
+            this.id = id;
+        }
+
+        public Object key() {
+            return key;
+        }
+
+        public Object id() {
+            return id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Continuation)) {
+                return false;
+            }
+            Continuation that = (Continuation) o;
+            return key.equals(that.key) && id.equals(that.id);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(key, id);
+        }
+
+        @Override
+        public String toString() {
+            return "Continuation{key=" + key + ", id=" + id + "}";
+        }
+    }
+}
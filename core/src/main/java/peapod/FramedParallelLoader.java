@@ -0,0 +1,295 @@
+/*
+ * Copyright 2015 Bay of Many
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * This project is derived from code in the TinkerPop project under the following license:
+ *
+ *    TinkerPop3
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ */
+
+package peapod;
+
+import peapod.FramedBulkLoader.EdgeSpec;
+import peapod.FramedBulkLoader.Spec;
+import peapod.FramedBulkLoader.Statistics;
+import peapod.FramedBulkLoader.VertexSpec;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
+
+/**
+ * <p>Loads large amounts of vertices and edges with multiple threads, each with its own transaction.</p>
+ * <p>The specs are partitioned by vertex key. Every partition is loaded by one worker, committing every
+ * {@link #batchSize(int) batch size} mutations. Edges between vertices of different partitions are loaded in a
+ * second pass, once all vertices are committed. Vertices must precede the edges referring to them in the stream.</p>
+ * <p>A batch failing to commit, e.g. because of a conflicting write on a backend with optimistic locking, is rolled
+ * back and loaded again after an exponential backoff.</p>
+ * <pre>
+ *     Statistics statistics = graph.parallelLoader(8).batchSize(10000).load(specs);
+ * </pre>
+ * <p>Relies on the thread-bound transactions of the graph. Graphs without transaction support, which are generally
+ * not safe for concurrent writes, are loaded by a single worker.</p>
+ *
+ * @author Willem Salembier
+ * @see FramedGraph#parallelLoader(int)
+ * @since 0.4
+ */
+public class FramedParallelLoader {
+
+    private static final int DEFAULT_BATCH_SIZE = 10000;
+    private static final int DEFAULT_RETRIES = 5;
+    private static final long DEFAULT_BACKOFF_MILLIS = 10;
+
+    private static final Spec END = loader -> {
+    };
+
+    private final FramedGraph graph;
+    private final int threads;
+
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private int retries = DEFAULT_RETRIES;
+    private long backoffMillis = DEFAULT_BACKOFF_MILLIS;
+    private Predicate<? super RuntimeException> retryOn = e -> !(e instanceof IllegalArgumentException);
+
+    FramedParallelLoader(FramedGraph graph, int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Number of threads must be positive: " + threads);
+        }
+        this.graph = graph;
+        this.threads = graph.features().graph().supportsTransactions() ? threads : 1;
+    }
+
+    /**
+     * @param batchSize the number of vertices and edges added per transaction
+     * @return this loader
+     */
+    public FramedParallelLoader batchSize(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+        }
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    /**
+     * @param retries the maximum number of times a failed batch is loaded again
+     * @param backoff the delay before the first retry, doubled for every next retry
+     * @param unit    the unit of the delay
+     * @return this loader
+     */
+    public FramedParallelLoader retries(int retries, long backoff, TimeUnit unit) {
+        this.retries = retries;
+        this.backoffMillis = unit.toMillis(backoff);
+        return this;
+    }
+
+    /**
+     * @param retryOn whether a batch failing with the exception is loaded again, by default all exceptions
+     *                except {@link IllegalArgumentException}s
+     * @return this loader
+     */
+    public FramedParallelLoader retryOn(Predicate<? super RuntimeException> retryOn) {
+        this.retryOn = retryOn;
+        return this;
+    }
+
+    /**
+     * Loads all specs of the stream. Vertex and edge specs are partitioned by key, other specs are loaded in the
+     * second pass.
+     *
+     * @return the statistics of both passes
+     */
+    public Statistics load(Stream<? extends Spec> specs) {
+        long start = System.nanoTime();
+        Map<Object, Object> ids = new ConcurrentHashMap<>();
+        List<Spec> crossPartition = new ArrayList<>();
+        List<Worker> workers = new ArrayList<>();
+
+        workers.addAll(run(specs.iterator(), ids, this::partition, crossPartition));
+        workers.addAll(run(crossPartition.iterator(), ids, this::secondPassPartition, null));
+
+        long vertices = 0, edges = 0, commits = 0, retried = 0;
+        for (Worker worker : workers) {
+            Statistics statistics = worker.loader.statistics();
+            vertices += statistics.vertices();
+            edges += statistics.edges();
+            commits += statistics.commits();
+            retried += worker.retried;
+        }
+        return new Statistics(vertices, edges, commits, retried, System.nanoTime() - start);
+    }
+
+    /**
+     * @return the worker of the spec, or -1 for the second pass
+     */
+    private int partition(Spec spec) {
+        if (spec instanceof VertexSpec) {
+            return partition(((VertexSpec) spec).key());
+        } else if (spec instanceof EdgeSpec) {
+            EdgeSpec edge = (EdgeSpec) spec;
+            boolean outLoaded = isLoaded(edge.out());
+            boolean inLoaded = isLoaded(edge.in());
+            if (outLoaded && inLoaded) {
+                return partition(null);
+            } else if (outLoaded) {
+                return partition(edge.in());
+            } else if (inLoaded) {
+                return partition(edge.out());
+            }
+            int out = partition(edge.out());
+            return out == partition(edge.in()) ? out : -1;
+        }
+        return -1;
+    }
+
+    private int secondPassPartition(Spec spec) {
+        return spec instanceof EdgeSpec && !isLoaded(((EdgeSpec) spec).out()) ? partition(((EdgeSpec) spec).out()) : partition(null);
+    }
+
+    private int partition(Object key) {
+        if (key == null) {
+            return ThreadLocalRandom.current().nextInt(threads);
+        }
+        int h = key.hashCode();
+        return Math.floorMod(h ^ (h >>> 16), threads);
+    }
+
+    /**
+     * @return whether the key is an existing vertex, that can be linked from any partition
+     */
+    private static boolean isLoaded(Object key) {
+        return key instanceof FramedVertex || key instanceof org.apache.tinkerpop.gremlin.structure.Vertex;
+    }
+
+    private List<Worker> run(Iterator<? extends Spec> specs, Map<Object, Object> ids, ToIntFunction<Spec> partitioner, List<Spec> deferred) {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Worker> workers = new ArrayList<>(threads);
+        List<Future<?>> futures = new ArrayList<>(threads);
+        try {
+            for (int i = 0; i < threads; i++) {
+                Worker worker = new Worker(new FramedBulkLoader(graph, ids).batchSize(Integer.MAX_VALUE));
+                workers.add(worker);
+                futures.add(executor.submit(worker));
+            }
+
+            while (specs.hasNext()) {
+                Spec spec = specs.next();
+                int partition = partitioner.applyAsInt(spec);
+                if (partition < 0) {
+                    deferred.add(spec);
+                } else {
+                    put(workers.get(partition).queue, spec, futures);
+                }
+            }
+            for (Worker worker : workers) {
+                put(worker.queue, END, futures);
+            }
+            for (Future<?> future : futures) {
+                await(future);
+            }
+            return workers;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Hands over the spec to a worker, unless a worker failed.
+     */
+    private static void put(BlockingQueue<Spec> queue, Spec spec, List<Future<?>> futures) {
+        try {
+            while (!queue.offer(spec, 100, TimeUnit.MILLISECONDS)) {
+                for (Future<?> future : futures) {
+                    if (future.isDone()) {
+                        await(future);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static void await(Future<?> future) {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    private class Worker implements Callable<Void> {
+
+        private final BlockingQueue<Spec> queue = new ArrayBlockingQueue<>(batchSize);
+        private final FramedBulkLoader loader;
+        private long retried;
+
+        private Worker(FramedBulkLoader loader) {
+            this.loader = loader;
+        }
+
+        @Override
+        public Void call() throws Exception {
+            List<Spec> batch = new ArrayList<>(batchSize);
+            while (true) {
+                Spec spec = queue.take();
+                if (spec != END) {
+                    batch.add(spec);
+                }
+                if (!batch.isEmpty() && (spec == END || batch.size() >= batchSize)) {
+                    load(batch);
+                    batch.clear();
+                }
+                if (spec == END) {
+                    return null;
+                }
+            }
+        }
+
+        private void load(List<Spec> batch) throws InterruptedException {
+            for (int attempt = 0; ; attempt++) {
+                try {
+                    batch.forEach(spec -> spec.load(loader));
+                    loader.commit();
+                    return;
+                } catch (RuntimeException e) {
+                    if (!graph.features().graph().supportsTransactions()) {
+                        throw e;
+                    }
+                    loader.rollback();
+                    if (attempt >= retries || !retryOn.test(e)) {
+                        throw e;
+                    }
+                    retried++;
+                    long backoff = backoffMillis << attempt;
+                    Thread.sleep(backoff + ThreadLocalRandom.current().nextLong(backoff + 1));
+                }
+            }
+        }
+    }
+}
@@ -22,6 +22,7 @@
 package peapod;
 
 import org.apache.tinkerpop.gremlin.structure.Vertex;
+import peapod.internal.runtime.LazyVertex;
 
 /**
  * <p>All generated {@code @Vertex} classes implement the {@code FramedVertex} interface. It can be optionally
@@ -36,8 +37,11 @@ import org.apache.tinkerpop.gremlin.structure.Vertex;
  */
 public interface FramedVertex<V> extends FramedElement, FramedVertexTraversal<V> {
 
+    /**
+     * @return the wrapped vertex, looked up in the graph on the first call when the frame is a lazy reference
+     */
     default Vertex vertex() {
-        return (Vertex) element();
+        return LazyVertex.unwrap((Vertex) element());
     }
 
     @SuppressWarnings("unchecked")
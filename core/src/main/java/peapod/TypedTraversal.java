@@ -0,0 +1,151 @@
+/*
+ * Copyright 2015 Bay of Many
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * This project is derived from code in the TinkerPop project under the following license:
+ *
+ *    TinkerPop3
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ */
+
+package peapod;
+
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * <p>Base class of the typed traversals generated for each {@code @Vertex} class, e.g. {@code PersonTraversal}.</p>
+ * <p>The generated subclasses add a {@code has<Property>(value)} and {@code orderBy<Property>(order)} step for each
+ * property getter and an {@code out<Relationship>()}, {@code in<Relationship>()} or {@code both<Relationship>()} step
+ * for each relationship getter. Labels and framing classes are resolved at compile-time, so the steps are checked by the compiler
+ * and do not need to look them up at runtime.</p>
+ * <pre>
+ *     List&lt;Person&gt; friends = PersonTraversal.from(graph).hasName("alice").outFriends().dedup().toList();
+ * </pre>
+ *
+ * @param <F> the framed vertex class
+ * @param <T> the generated traversal class
+ * @author Willem Salembier
+ * @since 0.4
+ */
+@SuppressWarnings("unchecked")
+public abstract class TypedTraversal<F, T extends TypedTraversal<F, T>> implements Iterator<F>, AutoCloseable {
+
+    protected final GraphTraversal<Vertex, Vertex> traversal;
+
+    protected final FramedGraph graph;
+
+    protected TypedTraversal(GraphTraversal<Vertex, Vertex> traversal, FramedGraph graph) {
+        this.traversal = traversal;
+        this.graph = graph;
+    }
+
+    protected abstract F frame(Vertex vertex);
+
+    public T has(String key) {
+        traversal.has(key);
+        return (T) this;
+    }
+
+    public T has(String key, Object value) {
+        traversal.has(key, value);
+        return (T) this;
+    }
+
+    public T hasNot(String key) {
+        traversal.hasNot(key);
+        return (T) this;
+    }
+
+    public T filter(Predicate<F> predicate) {
+        traversal.filter(t -> predicate.test(frame(t.get())));
+        return (T) this;
+    }
+
+    public T dedup() {
+        traversal.dedup();
+        return (T) this;
+    }
+
+    public T limit(long limit) {
+        traversal.limit(limit);
+        return (T) this;
+    }
+
+    public T range(long low, long high) {
+        traversal.range(low, high);
+        return (T) this;
+    }
+
+    public long count() {
+        return traversal.count().next();
+    }
+
+    public List<F> toList() {
+        List<F> result = new ArrayList<>();
+        forEachRemaining(result::add);
+        return result;
+    }
+
+    public Set<F> toSet() {
+        Set<F> result = new HashSet<>();
+        forEachRemaining(result::add);
+        return result;
+    }
+
+    /**
+     * Lazily frames the remaining vertices while the stream is consumed. Closing the stream closes the traversal.
+     *
+     * @return a sequential stream of the framed vertices
+     */
+    public Stream<F> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false).onClose(this::close);
+    }
+
+    public Optional<F> tryNext() {
+        return hasNext() ? Optional.of(next()) : Optional.empty();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return traversal.hasNext();
+    }
+
+    @Override
+    public F next() {
+        return frame(traversal.next());
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super F> action) {
+        traversal.forEachRemaining(v -> action.accept(frame(v)));
+    }
+
+    @Override
+    public void close() {
+        if (traversal instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) traversal).close();
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+}
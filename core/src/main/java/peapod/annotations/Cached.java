@@ -0,0 +1,53 @@
+/*
+ * Copyright 2015 Bay of Many
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * This project is derived from code in the TinkerPop project under the following license:
+ *
+ *    TinkerPop3
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ */
+
+package peapod.annotations;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.SOURCE;
+
+/**
+ * <p>Caches the value of a single-valued property getter in the framed instance after the first read.
+ * The generated setter invalidates the cached value, and it is discarded when the current thread commits or rolls back
+ * a transaction.</p>
+ * <pre>
+ *     &#64;Cached
+ *     public abstract String getName();
+ * </pre>
+ * <p>On a class it applies to all property getters declared by the class. A method annotation overrides the class
+ * annotation. Changes made to the underlying element without the framed instance, e.g. by another framed instance of
+ * the same vertex, are only seen after the next transaction boundary. For graphs without transaction support
+ * the cached values live as long as the framed instance.</p>
+ *
+ * @author Willem Salembier
+ * @since 0.4
+ */
+@Retention(SOURCE)
+@Target({TYPE, METHOD})
+public @interface Cached {
+
+    boolean value() default true;
+
+}
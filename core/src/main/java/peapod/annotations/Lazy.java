@@ -0,0 +1,66 @@
+/*
+ * Copyright 2015 Bay of Many
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * This project is derived from code in the TinkerPop project under the following license:
+ *
+ *    TinkerPop3
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ */
+
+package peapod.annotations;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.SOURCE;
+
+/**
+ * <p>Generates {@code List}, {@code Collection} and {@code Iterable} getters of linked vertices and edges as lazy views.
+ * The elements are only framed while iterating and {@code size()} is answered by a count traversal,
+ * so the adjacency is never materialized. Every iteration queries the graph again.</p>
+ * <pre>
+ *     &#64;Lazy
+ *     public abstract List&lt;Person&gt; getFriends();
+ * </pre>
+ * <p>On a class it applies to all collection getters declared by the class. A method annotation overrides the class
+ * annotation, and both override the processor option {@code -Apeapod.lazy=true} that enables lazy getters globally.
+ * {@code Set} getters are always materialized.</p>
+ * <p>With {@link #reference()} on a getter of a single linked vertex, the vertex is framed as a reference holding only
+ * the id read from the edge. The vertex is looked up on the first property or relationship access, or on the first
+ * access to its label when the returned class has framed sub classes with other labels.
+ * References are only generated for getters that opt in, neither the class annotation nor the processor option
+ * changes single vertex getters.</p>
+ * <pre>
+ *     &#64;Lazy(reference = true)
+ *     public abstract Person getBestFriend();
+ * </pre>
+ *
+ * @author Willem Salembier
+ * @since 0.4
+ */
+@Retention(SOURCE)
+@Target({TYPE, METHOD})
+public @interface Lazy {
+
+    boolean value() default true;
+
+    /**
+     * @return whether a getter of a single linked vertex returns a reference to the vertex by its id
+     */
+    boolean reference() default false;
+
+}
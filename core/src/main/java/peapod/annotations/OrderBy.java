@@ -0,0 +1,56 @@
+/*
+ * Copyright 2015 Bay of Many
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * This project is derived from code in the TinkerPop project under the following license:
+ *
+ *    TinkerPop3
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ */
+
+package peapod.annotations;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.SOURCE;
+
+/**
+ * <p>Orders the linked vertices or edges returned by a {@code List}, {@code Collection}, {@code Set} or {@code Stream}
+ * getter by one of their properties. The ordering is part of the traversal, so backends with sorted vertex-centric
+ * indexes can use them. Sets keep the order as a {@link java.util.LinkedHashSet}.</p>
+ * <pre>
+ *     &#64;OrderBy("since")
+ *     public abstract List&lt;Knows&gt; getKnows();
+ *
+ *     &#64;OrderBy(value = "since", descending = true)
+ *     public abstract List&lt;Knows&gt; getKnows(int offset, int limit);
+ * </pre>
+ * <p>Getters with an {@code int offset} and {@code int limit} parameter return a single page of the relationship,
+ * with a limit of {@code -1} for all remaining elements. Without {@code @OrderBy} a page follows the adjacency order
+ * of the backend.</p>
+ *
+ * @author Willem Salembier
+ * @since 0.4
+ */
+@Retention(SOURCE)
+@Target(METHOD)
+public @interface OrderBy {
+
+    String value();
+
+    boolean descending() default false;
+
+}
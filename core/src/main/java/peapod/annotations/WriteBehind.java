@@ -0,0 +1,56 @@
+/*
+ * Copyright 2015 Bay of Many
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * This project is derived from code in the TinkerPop project under the following license:
+ *
+ *    TinkerPop3
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ */
+
+package peapod.annotations;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.SOURCE;
+
+/**
+ * <p>Defers the writes of the single-valued property setters of a vertex or edge class. The framed instance keeps the
+ * set values, which its getters return, until they are written to the element in one go by
+ * {@link peapod.FramedGraph#flush()} or {@link peapod.FramedGraph#commit()}. Values equal to the current
+ * property value are not written.</p>
+ * <pre>
+ *     &#64;Vertex
+ *     &#64;WriteBehind
+ *     public abstract class Person implements FramedVertex&lt;Person&gt; {
+ *         ...
+ *     }
+ *
+ *     person.setName("alice");
+ *     person.setAge(30);
+ *     graph.commit();
+ * </pre>
+ * <p>Traversals only see the values once flushed. The pending values belong to the transaction of the current thread
+ * they were set in: they are discarded when the transaction is rolled back, and also when it is committed with
+ * {@code graph.tx().commit()} instead of {@link peapod.FramedGraph#commit()}, which flushes them first.</p>
+ *
+ * @author Willem Salembier
+ * @since 0.4
+ */
+@Retention(SOURCE)
+@Target(TYPE)
+public @interface WriteBehind {
+}
@@ -22,31 +22,45 @@
 package peapod.internal;
 
 import com.squareup.javapoet.*;
+import org.apache.tinkerpop.gremlin.process.traversal.Order;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
 import org.apache.tinkerpop.gremlin.structure.T;
 import peapod.*;
 import peapod.annotations.*;
 import peapod.internal.runtime.DefaultIterable;
+import peapod.internal.runtime.DirtyTracking;
 import peapod.internal.runtime.FrameHelper;
 import peapod.internal.runtime.Framer;
+import peapod.internal.runtime.FramerIndex;
 import peapod.internal.runtime.IFramer;
+import peapod.internal.runtime.Prefetchable;
+import peapod.internal.runtime.Rebindable;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.processing.*;
 import javax.lang.model.SourceVersion;
 import javax.lang.model.element.*;
+import javax.lang.model.type.ArrayType;
 import javax.lang.model.type.DeclaredType;
 import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
 import javax.lang.model.util.Types;
-import java.io.IOException;
-import java.io.PrintWriter;
-import java.io.StringWriter;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.*;
+import java.lang.annotation.Annotation;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static javax.lang.model.element.ElementKind.*;
 import static javax.lang.model.element.Modifier.*;
+import static javax.lang.model.type.TypeKind.ARRAY;
+import static javax.lang.model.type.TypeKind.BOOLEAN;
 import static javax.lang.model.type.TypeKind.DECLARED;
+import static javax.lang.model.type.TypeKind.INT;
+import static javax.lang.model.type.TypeKind.LONG;
 import static javax.lang.model.type.TypeKind.VOID;
 import static javax.tools.Diagnostic.Kind.*;
 import static javax.tools.Diagnostic.Kind.OTHER;
@@ -54,23 +68,41 @@ import static peapod.internal.Direction.*;
 
 /**
  * Annotation processor for all {link @Vertex} annotated classes that generates the concrete implementation classes.
+ * For each package a {@link FramerIndex} is generated and registered as service, to avoid classpath scanning at runtime.
  */
 @SupportedAnnotationTypes({"peapod.annotations.Vertex", "peapod.annotations.VertexProperty", "peapod.annotations.Edge"})
 @SupportedSourceVersion(SourceVersion.RELEASE_8)
+@SupportedOptions(AnnotationProcessor.LAZY_OPTION)
 public final class AnnotationProcessor extends AbstractProcessor {
 
+    static final String LAZY_OPTION = "peapod.lazy";
+
+    private static final TypeName PREFETCHED_TYPE = ParameterizedTypeName.get(Map.class, String.class, Object.class);
+
     private Messager messager;
 
     private Filer filer;
 
     private Types types;
 
+    private Elements elementUtils;
+
+    private boolean lazyByDefault;
+
+    private final Set<String> pendingIndexPackages = new TreeSet<>();
+
+    private final Set<String> indexClasses = new TreeSet<>();
+
+    private final Set<TypeElement> vertexTypes = new LinkedHashSet<>();
+
     @Override
     public void init(final ProcessingEnvironment environment) {
         super.init(environment);
         this.messager = environment.getMessager();
         this.filer = environment.getFiler();
         types = environment.getTypeUtils();
+        elementUtils = environment.getElementUtils();
+        lazyByDefault = Boolean.parseBoolean(environment.getOptions().get(LAZY_OPTION));
     }
 
     @Override
@@ -78,18 +110,34 @@ public final class AnnotationProcessor extends AbstractProcessor {
         messager.printMessage(OTHER, "Start processor with " + annotations.size());
 
         try {
+            if (roundEnv.processingOver()) {
+                generateFramerIndexClasses();
+                generateFramerIndexServiceFile();
+                return true;
+            }
+
             Set<? extends Element> elements = roundEnv.getElementsAnnotatedWith(Vertex.class);
             messager.printMessage(OTHER, elements.size() + " elements with annotation @Vertex");
 
+            elements.stream().forEach(e -> vertexTypes.add((TypeElement) e));
             elements.stream().forEach(e -> generateImplementationClass((TypeElement) e, ElementType.Vertex));
+            elements.stream().forEach(e -> generateTraversalClass((TypeElement) e));
+            boolean annotated = addToFramerIndex(elements);
 
             elements = roundEnv.getElementsAnnotatedWith(VertexProperty.class);
             messager.printMessage(OTHER, elements.size() + " elements with annotation @VertexProperty");
             elements.stream().filter(e -> e.getKind().isClass()).forEach(e -> generateVertexPropertyImplementationClass((TypeElement) e));
+            annotated |= addToFramerIndex(elements);
 
             elements = roundEnv.getElementsAnnotatedWith(Edge.class);
             messager.printMessage(OTHER, elements.size() + " elements with annotation @Edge");
             elements.stream().filter(e -> e.getKind().isClass() || e.getKind().isInterface()).forEach(e -> generateImplementationClass((TypeElement) e, ElementType.Edge));
+            annotated |= addToFramerIndex(elements);
+
+            // the index classes are generated in the round after the implementation classes, so they can still be compiled
+            if (!annotated) {
+                generateFramerIndexClasses();
+            }
 
             return true;
         } catch (Exception e) {
@@ -156,16 +204,61 @@ public final class AnnotationProcessor extends AbstractProcessor {
             if (extendsType != null) {
                 implClass.superclass(ClassName.bestGuess(extendsType));
             }
+            if (elementType == ElementType.Vertex) {
+                implementsInterfaces.add(ClassName.get(Prefetchable.class));
+            }
+            boolean writeBehind = type.getAnnotation(WriteBehind.class) != null;
+            if (writeBehind) {
+                implementsInterfaces.add(ClassName.get(DirtyTracking.class));
+            }
+            implementsInterfaces.add(ClassName.get(Rebindable.class));
             implClass.addSuperinterfaces(implementsInterfaces)
                     .addAnnotation(AnnotationSpec.builder(SuppressWarnings.class).addMember("value", "$S", "unused").build())
                     .addField(FramedGraph.class, "graph", PRIVATE)
-                    .addField(elementType.getClazz(), elementType.getFieldName(), PRIVATE)
-                    .addMethod(constructor)
+                    .addField(elementType.getClazz(), elementType.getFieldName(), PRIVATE);
+            if (elementType == ElementType.Vertex) {
+                implClass.addField(PREFETCHED_TYPE, "prefetched", PRIVATE);
+            }
+            if (writeBehind) {
+                implClass.addField(PREFETCHED_TYPE, "dirty", PRIVATE);
+            }
+            implClass.addMethod(constructor)
                     .addMethod(graph)
                     .addMethod(element);
+            if (elementType == ElementType.Vertex) {
+                implClass.addMethod(MethodSpec.methodBuilder("prefetched").addModifiers(PUBLIC)
+                        .addParameter(PREFETCHED_TYPE, "properties")
+                        .addStatement("this.prefetched = properties")
+                        .build());
+            }
+            if (writeBehind) {
+                implClass.addMethod(MethodSpec.methodBuilder("flush").addModifiers(PUBLIC)
+                        .beginControlFlow("if (dirty != null)")
+                        .addStatement("$T properties = dirty", PREFETCHED_TYPE)
+                        .addStatement("dirty = null")
+                        .addStatement("$T.writeProperties($L, properties)", FrameHelper.class, elementType.getFieldName())
+                        .endControlFlow()
+                        .build());
+                implClass.addMethod(MethodSpec.methodBuilder("discard").addModifiers(PUBLIC)
+                        .addStatement("dirty = null")
+                        .build());
+            }
+
+            Map<String, String> label2CacheField = implementCacheFields(description, implClass);
 
+            MethodSpec.Builder rebind = MethodSpec.methodBuilder("rebind").addModifiers(PUBLIC)
+                    .addParameter(org.apache.tinkerpop.gremlin.structure.Element.class, "element");
+            if (writeBehind) {
+                rebind.addStatement("flush()");
+            }
+            rebind.addStatement("this.$L = ($T) element", elementType.getFieldName(), elementType.getClazz());
+            if (elementType == ElementType.Vertex) {
+                rebind.addStatement("this.prefetched = null");
+            }
+            label2CacheField.values().forEach(field -> rebind.addStatement("this.$L$$epoch = 0", field));
+            implClass.addMethod(rebind.build());
 
-            implementAbstractMethods(description, implClass, elementType);
+            implementAbstractMethods(description, implClass, elementType, writeBehind, label2CacheField);
             implementFramerMethods(type, implClass, elementType, description.getPostConstructMethods());
 
             JavaFile javaFile = JavaFile.builder(packageEl.getQualifiedName().toString(), implClass.build()).build();
@@ -175,6 +268,239 @@ public final class AnnotationProcessor extends AbstractProcessor {
         }
     }
 
+    /**
+     * Generates the typed traversal class {@code <Type>Traversal} with a {@code has<Property>} and
+     * {@code orderBy<Property>} step per property getter and a step per relationship getter, leading to the traversal class of the target vertex.
+     * Skipped with a warning when a class of that name already exists.
+     */
+    private void generateTraversalClass(TypeElement type) {
+        ClassName traversalType = getTraversalClass(type);
+        if (!hasTraversalClass(type)) {
+            messager.printMessage(WARNING, "Not generating " + traversalType + " as a class of that name already exists", type);
+            return;
+        }
+
+        ClassDescription description = parse(type);
+        TypeName vertexTraversalType = ParameterizedTypeName.get(GraphTraversal.class, org.apache.tinkerpop.gremlin.structure.Vertex.class, org.apache.tinkerpop.gremlin.structure.Vertex.class);
+
+        messager.printMessage(OTHER, "Generating " + traversalType);
+
+        MethodSpec constructor = MethodSpec.constructorBuilder().addModifiers(PUBLIC)
+                .addParameter(vertexTraversalType, "traversal")
+                .addParameter(FramedGraph.class, "graph")
+                .addStatement("super(traversal, graph)")
+                .build();
+
+        List<String> labels = getVertexLabels(type);
+        MethodSpec fromGraph = MethodSpec.methodBuilder("from").addModifiers(PUBLIC, STATIC).returns(traversalType)
+                .addParameter(FramedGraph.class, "graph")
+                .addStatement("return new $T(graph.traversal().V().hasLabel(" + labels.stream().map(l -> "$S").collect(Collectors.joining(", ")) + "), graph)",
+                        Stream.concat(Stream.of(traversalType), labels.stream()).toArray())
+                .build();
+
+        TypeName framedVertexType = ParameterizedTypeName.get(ClassName.get(FramedVertex.class), WildcardTypeName.subtypeOf(Object.class));
+        MethodSpec fromVertex = MethodSpec.methodBuilder("from").addModifiers(PUBLIC, STATIC).returns(traversalType)
+                .addParameter(ClassName.get(type), "vertex")
+                .addStatement("$T framed = ($T) vertex", framedVertexType, framedVertexType)
+                .addStatement("return new $T(framed.graph().traversal().V(framed.vertex()), framed.graph())", traversalType)
+                .build();
+
+        MethodSpec frame = MethodSpec.methodBuilder("frame").addAnnotation(Override.class).addModifiers(PROTECTED)
+                .returns(ClassName.get(type))
+                .addParameter(org.apache.tinkerpop.gremlin.structure.Vertex.class, "vertex")
+                .addStatement("return $T.dispatch(vertex, graph)", getFramerClass(type))
+                .build();
+
+        TypeSpec.Builder traversalClass = TypeSpec.classBuilder(traversalType.simpleName()).addModifiers(PUBLIC, FINAL)
+                .superclass(ParameterizedTypeName.get(ClassName.get(TypedTraversal.class), ClassName.get(type), traversalType))
+                .addMethod(constructor)
+                .addMethod(fromGraph)
+                .addMethod(fromVertex)
+                .addMethod(frame);
+
+        for (ExecutableElement method : description.getMethods()) {
+            if (MethodType.getType(method) != MethodType.GETTER) {
+                continue;
+            }
+
+            String name = method.getSimpleName().toString().substring(MethodType.GETTER.prefix.length());
+            String label = description.getLabel(method);
+            TypeMirror returnType = method.getReturnType();
+
+            if (description.isProperty(method)) {
+                if (getCollectionType(returnType) == null && !isVertexProperty(returnType)) {
+                    String parameterName = MethodType.GETTER.getPropertyName(method);
+                    traversalClass.addMethod(MethodSpec.methodBuilder("has" + name).addModifiers(PUBLIC).returns(traversalType)
+                            .addParameter(TypeName.get(returnType), parameterName)
+                            .addStatement("this.traversal.has($S, $L)", label, parameterName)
+                            .addStatement("return this")
+                            .build());
+                    traversalClass.addMethod(MethodSpec.methodBuilder("orderBy" + name).addModifiers(PUBLIC).returns(traversalType)
+                            .addParameter(Order.class, "order")
+                            .addStatement("this.traversal.order().by($S, order)", label)
+                            .addStatement("return this")
+                            .build());
+                }
+                continue;
+            }
+
+            Direction direction = getDirection(method, MethodType.GETTER);
+            TypeMirror target = getSingularizedType(returnType);
+            if (isEdge(target)) {
+                target = getEdgeTarget((TypeElement) types.asElement(target), direction);
+            }
+            if (target == null || !isVertex(target)) {
+                continue;
+            }
+
+            TypeElement targetType = (TypeElement) types.asElement(target);
+            if (!hasTraversalClass(targetType)) {
+                continue;
+            }
+            ClassName targetTraversalType = getTraversalClass(targetType);
+            traversalClass.addMethod(MethodSpec.methodBuilder(direction.toMethod() + name).addModifiers(PUBLIC).returns(targetTraversalType)
+                    .addStatement("return new $T(this.traversal.$L($S), this.graph)", targetTraversalType, direction.toMethod(), label)
+                    .build());
+        }
+
+        try {
+            JavaFile.builder(traversalType.packageName(), traversalClass.build()).build().writeTo(filer);
+        } catch (IOException e) {
+            throw new RuntimeException("Error occurred while generating traversal for " + type.getQualifiedName(), e);
+        }
+    }
+
+    private ClassName getTraversalClass(TypeElement type) {
+        String packageName = ((PackageElement) type.getEnclosingElement()).getQualifiedName().toString();
+        return ClassName.get(packageName, type.getSimpleName() + "Traversal");
+    }
+
+    /**
+     * @return whether the traversal class of the vertex type is generated, i.e. its name is free or taken by a previously generated traversal
+     */
+    private boolean hasTraversalClass(TypeElement type) {
+        TypeElement existing = elementUtils.getTypeElement(getTraversalClass(type).toString());
+        if (existing == null) {
+            return true;
+        }
+        TypeMirror superclass = types.erasure(existing.getSuperclass());
+        return types.isSameType(superclass, types.erasure(elementUtils.getTypeElement(TypedTraversal.class.getName()).asType()));
+    }
+
+    private List<String> getVertexLabels(TypeElement type) {
+        TypeMirror erasure = types.erasure(type.asType());
+        return vertexTypes.stream()
+                .filter(t -> types.isAssignable(types.erasure(t.asType()), erasure))
+                .map(this::getLabel)
+                .distinct()
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @return the vertex type on the far side of the edge when traversing in the given direction, or {@code null}
+     */
+    private TypeMirror getEdgeTarget(TypeElement edgeClass, Direction direction) {
+        if (direction == BOTH) {
+            return null;
+        }
+        Class<? extends Annotation> side = direction == OUT ? In.class : Out.class;
+        return elementUtils.getAllMembers(edgeClass).stream()
+                .filter(e -> e.getKind() == METHOD && e.getAnnotation(side) != null)
+                .map(e -> ((ExecutableElement) e).getReturnType())
+                .filter(this::isVertex)
+                .findFirst().orElse(null);
+    }
+
+    private boolean addToFramerIndex(Set<? extends Element> elements) {
+        elements.stream().filter(this::hasFramer)
+                .forEach(e -> pendingIndexPackages.add(((PackageElement) e.getEnclosingElement()).getQualifiedName().toString()));
+        return !elements.isEmpty();
+    }
+
+    private boolean hasFramer(Element e) {
+        if (e.getAnnotation(Vertex.class) != null) {
+            return true;
+        } else if (e.getAnnotation(Edge.class) != null) {
+            return e.getKind().isClass() || e.getKind().isInterface();
+        } else if (e.getAnnotation(VertexProperty.class) != null) {
+            return e.getKind().isClass();
+        }
+        return false;
+    }
+
+    private void generateFramerIndexClasses() throws IOException {
+        for (String packageName : pendingIndexPackages) {
+            PackageElement packageEl = elementUtils.getPackageElement(packageName);
+
+            // all framed types of the package, also the ones not part of this (incremental) compilation
+            List<ClassName> framers = packageEl.getEnclosedElements().stream()
+                    .filter(this::hasFramer)
+                    .map(e -> e.getSimpleName().toString())
+                    .sorted()
+                    .map(n -> ClassName.get(packageName, n + "$Impl", n + "Framer"))
+                    .collect(Collectors.toList());
+            if (framers.isEmpty() || indexClasses.contains(packageName + "." + FramerIndex.CLASS_NAME)) {
+                continue;
+            }
+
+            messager.printMessage(OTHER, "Generating " + packageName + "." + FramerIndex.CLASS_NAME);
+
+            TypeName framerType = ParameterizedTypeName.get(ClassName.get(IFramer.class), WildcardTypeName.subtypeOf(Object.class), WildcardTypeName.subtypeOf(Object.class));
+
+            MethodSpec packageNameMethod = MethodSpec.methodBuilder("packageName").addModifiers(PUBLIC)
+                    .returns(String.class)
+                    .addStatement("return $S", packageName)
+                    .build();
+
+            List<Object> args = new ArrayList<>();
+            args.add(Arrays.class);
+            args.add(framerType);
+            args.addAll(framers);
+            MethodSpec framersMethod = MethodSpec.methodBuilder("framers").addModifiers(PUBLIC)
+                    .returns(ParameterizedTypeName.get(ClassName.get(List.class), framerType))
+                    .addStatement("return $T.<$T>asList(" + framers.stream().map(f -> "new $T()").collect(Collectors.joining(", ")) + ")", args.toArray())
+                    .build();
+
+            TypeSpec index = TypeSpec.classBuilder(FramerIndex.CLASS_NAME).addModifiers(PUBLIC, FINAL)
+                    .addSuperinterface(FramerIndex.class)
+                    .addMethod(packageNameMethod)
+                    .addMethod(framersMethod)
+                    .build();
+
+            JavaFile.builder(packageName, index).build().writeTo(filer);
+            indexClasses.add(packageName + "." + FramerIndex.CLASS_NAME);
+        }
+        pendingIndexPackages.clear();
+    }
+
+    private void generateFramerIndexServiceFile() throws IOException {
+        if (indexClasses.isEmpty()) {
+            return;
+        }
+
+        String resource = "META-INF/services/" + FramerIndex.class.getName();
+
+        // keep the index classes registered by a previous (incremental) compilation
+        Set<String> services = new TreeSet<>(indexClasses);
+        try {
+            FileObject existing = filer.getResource(StandardLocation.CLASS_OUTPUT, "", resource);
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(existing.openInputStream(), StandardCharsets.UTF_8))) {
+                reader.lines().map(String::trim).filter(l -> !l.isEmpty()).forEach(services::add);
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            // no service file yet
+        }
+
+        FileObject file = filer.createResource(StandardLocation.CLASS_OUTPUT, "", resource);
+        try (Writer writer = new OutputStreamWriter(file.openOutputStream(), StandardCharsets.UTF_8)) {
+            for (String service : services) {
+                writer.write(service);
+                writer.write("\n");
+            }
+        }
+    }
+
     private Set<TypeElement> getAllImplementingInterfaces(TypeElement type) {
         Set<TypeElement> results = new HashSet<>();
         for (TypeMirror tmp : type.getInterfaces()) {
@@ -255,7 +581,7 @@ public final class AnnotationProcessor extends AbstractProcessor {
                     .addMethod(getValue)
                     .addMethod(setValue);
 
-            implementAbstractMethods(description, implClass, ElementType.VertexProperty);
+            implementAbstractMethods(description, implClass, ElementType.VertexProperty, false, implementCacheFields(description, implClass));
             implementFramerMethods(type, implClass, ElementType.VertexProperty, description.getPostConstructMethods());
 
             JavaFile javaFile = JavaFile.builder(packageEl.getQualifiedName().toString(), implClass.build()).build();
@@ -267,20 +593,38 @@ public final class AnnotationProcessor extends AbstractProcessor {
         }
     }
 
-    private void implementAbstractMethods(ClassDescription description, TypeSpec.Builder implClass, ElementType elementType) throws IOException {
+    /**
+     * Adds the fields holding the value and epoch of the cached property getters.
+     *
+     * @return the field name prefixes by property label
+     */
+    private Map<String, String> implementCacheFields(ClassDescription description, TypeSpec.Builder implClass) {
+        Map<String, String> label2CacheField = new TreeMap<>();
+        for (ExecutableElement method : description.getMethods()) {
+            if (isCached(method, description)) {
+                String field = MethodType.GETTER.getPropertyName(method);
+                label2CacheField.put(description.getLabel(method), field);
+                implClass.addField(TypeName.get(method.getReturnType()), field + "$value", PRIVATE);
+                implClass.addField(TypeName.LONG, field + "$epoch", PRIVATE);
+            }
+        }
+        return label2CacheField;
+    }
+
+    private void implementAbstractMethods(ClassDescription description, TypeSpec.Builder implClass, ElementType elementType, boolean writeBehind, Map<String, String> label2CacheField) throws IOException {
         for (ExecutableElement method : description.getMethods()) {
             MethodType methodType = MethodType.getType(method);
             MethodSpec m;
             if (description.isProperty(method)) {
-                m = implementAbstractPropertyMethod(method, methodType, description.getLabel(method), elementType);
+                m = implementAbstractPropertyMethod(method, methodType, description.getLabel(method), elementType, label2CacheField.get(description.getLabel(method)), writeBehind);
             } else {
-                m = implementAbstractEdgeMethod(method, methodType, description.getLabel(method), elementType);
+                m = implementAbstractEdgeMethod(method, methodType, description.getLabel(method), elementType, description.isIdGetter(method));
             }
             implClass.addMethod(m);
         }
     }
 
-    private MethodSpec implementAbstractPropertyMethod(ExecutableElement method, MethodType methodType, String label, ElementType elementType) throws IOException {
+    private MethodSpec implementAbstractPropertyMethod(ExecutableElement method, MethodType methodType, String label, ElementType elementType, String cacheField, boolean writeBehind) throws IOException {
         String fieldName = elementType.getFieldName();
 
         Set<Modifier> modifiers = new HashSet<>(method.getModifiers());
@@ -302,12 +646,42 @@ public final class AnnotationProcessor extends AbstractProcessor {
             }
 
             CollectionType collectionType = getCollectionType(method.getReturnType());
-            if (collectionType == null) {
+            if (collectionType == null && writeBehind && !isVertexProperty(method.getReturnType())) {
+                builder1.beginControlFlow("if (dirty != null && dirty.containsKey($S))", label);
+                if (method.getReturnType().getKind().isPrimitive()) {
+                    builder1.addStatement("return dirty.get($S) != null ? ($L) dirty.get($S) : $L", label, className, label, getDefaultValue(method.getReturnType()));
+                } else {
+                    builder1.addStatement("return ($T) dirty.get($S)", method.getReturnType(), label);
+                }
+                builder1.endControlFlow();
+            }
+            if (collectionType == null && elementType == ElementType.Vertex && !isVertexProperty(method.getReturnType())) {
+                builder1.beginControlFlow("if (prefetched != null && prefetched.containsKey($S))", label);
+                if (method.getReturnType().getKind().isPrimitive()) {
+                    builder1.addStatement("return prefetched.get($S) != null ? ($L) prefetched.get($S) : $L", label, className, label, getDefaultValue(method.getReturnType()));
+                } else {
+                    builder1.addStatement("return ($T) prefetched.get($S)", method.getReturnType(), label);
+                }
+                builder1.endControlFlow();
+            }
+            if (collectionType == null && cacheField != null) {
+                builder1.addCode("// getter-property-cached\n")
+                        .addStatement("long epoch = graph.epoch()")
+                        .beginControlFlow("if ($L$$epoch != epoch)", cacheField)
+                        .addStatement("$L$$value = $L.<$L>property($S).orElse($L)", cacheField, fieldName, className, label, getDefaultValue(method.getReturnType()))
+                        .addStatement("$L$$epoch = epoch", cacheField)
+                        .endControlFlow()
+                        .addStatement("return $L$$value", cacheField);
+            } else if (collectionType == null) {
                 builder1.addStatement("return $L.<$L>property($S).orElse($L)", fieldName, className, label, getDefaultValue(method.getReturnType()));
             } else {
                 TypeMirror singularizedType = getSingularizedType(method.getReturnType());
 
-                if (isVertexProperty(singularizedType)) {
+                if (collectionType == CollectionType.STREAM && isVertexProperty(singularizedType)) {
+                    builder1.addStatement("return $T.streamVertexProperties(this, $S, $T.class)", FrameHelper.class, label, singularizedType);
+                } else if (collectionType == CollectionType.STREAM) {
+                    builder1.addStatement("return $T.stream(v.values($S))", FrameHelper.class, label);
+                } else if (isVertexProperty(singularizedType)) {
                     builder1.addStatement("return graph().frame(v.properties($S), $T.class)", label, singularizedType);
                 } else {
                     builder1.addStatement("return $T.toList(v.values($S))", FrameHelper.class, label);
@@ -315,6 +689,21 @@ public final class AnnotationProcessor extends AbstractProcessor {
             }
         } else if (methodType == MethodType.FILTERED_GETTER && isVertexProperty(method.getReturnType())) {
             builder1.addStatement("return $T.filterVertexProperty(this, $S, $L, $T.class)", FrameHelper.class, label, parameterName, method.getReturnType());
+        } else if (methodType == MethodType.SETTER && writeBehind) {
+            builder1.addCode("// setter-property-write-behind\n")
+                    .beginControlFlow("if (dirty == null)")
+                    .addStatement("dirty = new $T<>()", HashMap.class)
+                    .addStatement("graph.markDirty(this)")
+                    .endControlFlow()
+                    .addStatement("dirty.put($S, $L)", label, parameterName);
+            if (cacheField != null) {
+                builder1.addStatement("$L$$epoch = 0", cacheField);
+            }
+            if (elementType == ElementType.Vertex) {
+                builder1.beginControlFlow("if (prefetched != null)")
+                        .addStatement("prefetched.remove($S)", label)
+                        .endControlFlow();
+            }
         } else if (methodType == MethodType.SETTER) {
             if (method.getParameters().get(0).asType().getKind().isPrimitive()) {
                 builder1.addStatement(fieldName + ".$L($S, $L)", "property", label, parameterName);
@@ -325,10 +714,20 @@ public final class AnnotationProcessor extends AbstractProcessor {
                         .addStatement(fieldName + ".$L($S, $L)", "property", label, parameterName)
                         .endControlFlow();
             }
+            if (cacheField != null) {
+                builder1.addStatement("$L$$epoch = 0", cacheField);
+            }
+            if (elementType == ElementType.Vertex) {
+                builder1.beginControlFlow("if (prefetched != null)")
+                        .addStatement("prefetched.remove($S)", label)
+                        .endControlFlow();
+            }
         } else if (methodType == MethodType.ADDER && parameterClass != null && returnClass == null) {
             builder1.addStatement("v.property(org.apache.tinkerpop.gremlin.structure.VertexProperty.Cardinality.list, $S, $L)", label, parameterName);
         } else if (methodType == MethodType.ADDER && parameterClass != null && isVertexProperty(method.getReturnType())) {
             builder1.addStatement("return graph.frame(v.property(org.apache.tinkerpop.gremlin.structure.VertexProperty.Cardinality.list, $S, $L), $T.class)", label, parameterName, method.getReturnType());
+        } else if (methodType == MethodType.REMOVER && parameterClass != null && returnClass == null && getCollectionType(method.getParameters().get(0).asType()) != null) {
+            builder1.addStatement("$T.removeVertexProperties(this, $S, $L)", FrameHelper.class, label, parameterName);
         } else if (methodType == MethodType.REMOVER && parameterClass != null && returnClass == null) {
             builder1.addStatement("$T.removeVertexProperty(this, $S, $L)", FrameHelper.class, label, parameterName);
         } else {
@@ -337,7 +736,7 @@ public final class AnnotationProcessor extends AbstractProcessor {
         return builder1.build();
     }
 
-    private MethodSpec implementAbstractEdgeMethod(ExecutableElement method, MethodType methodType, String label, ElementType elementType) throws IOException {
+    private MethodSpec implementAbstractEdgeMethod(ExecutableElement method, MethodType methodType, String label, ElementType elementType, boolean idGetter) throws IOException {
         String elementName = elementType.getFieldName();
 
         Set<Modifier> modifiers = new HashSet<>(method.getModifiers());
@@ -351,7 +750,14 @@ public final class AnnotationProcessor extends AbstractProcessor {
 
         Direction direction = getDirection(method, methodType);
 
-        if (methodType == MethodType.GETTER || methodType == MethodType.FILTERED_GETTER) {
+        if (idGetter) {
+            m.addCode("// getter-vertex-ids\n");
+            if (method.getReturnType().getKind() == ARRAY) {
+                m.addStatement("return $T.longVertexIds(this, $T.$L, $S)", FrameHelper.class, org.apache.tinkerpop.gremlin.structure.Direction.class, direction, label);
+            } else {
+                m.addStatement("return $T.vertexIds(this, $T.$L, $S)", FrameHelper.class, org.apache.tinkerpop.gremlin.structure.Direction.class, direction, label);
+            }
+        } else if (methodType == MethodType.GETTER || methodType == MethodType.FILTERED_GETTER || methodType == MethodType.PAGED_GETTER) {
 
             CollectionType collectionType = getCollectionType(method.getReturnType());
             if (collectionType != null) {
@@ -367,50 +773,120 @@ public final class AnnotationProcessor extends AbstractProcessor {
                 Vertex vertexAnnotation = element.getAnnotation(Vertex.class);
                 Edge edgeAnnotation = element.getAnnotation(Edge.class);
 
-                if (vertexAnnotation != null) {
+                boolean lazy = collectionType != CollectionType.SET && elementType == ElementType.Vertex && isLazy(method);
+                OrderBy orderBy = method.getAnnotation(OrderBy.class);
+                boolean paged = methodType == MethodType.PAGED_GETTER;
+                boolean ordered = (orderBy != null || paged) && elementType == ElementType.Vertex;
+                String offset = paged ? method.getParameters().get(0).getSimpleName().toString() : "0";
+                String limit = paged ? method.getParameters().get(1).getSimpleName().toString() : "-1";
+                String orderKey = orderBy == null ? null : orderBy.value();
+                String order = orderBy != null && orderBy.descending() ? "decr" : "incr";
+
+                if (paged && !isPage(method)) {
+                    generateNotSupportedStatement("get-page-no-offset-and-limit", method, m);
+                } else if ((vertexAnnotation != null || edgeAnnotation != null) && ordered) {
+                    // the traversal orders and ranges the elements, streams and linked sets keep that order
+                    m.addCode("// getter-$L-$L-$L\n", vertexAnnotation != null ? "vertex" : "edge",
+                            collectionType == CollectionType.STREAM ? "stream" : "collection", paged ? "paged" : "ordered");
+                    CodeBlock elements = CodeBlock.of("$T.$L(this, $T.$L, $S, $S, $T.$L, $L, $L)", FrameHelper.class, vertexAnnotation != null ? "vertices" : "edges", org.apache.tinkerpop.gremlin.structure.Direction.class, direction, label, orderKey, Order.class, order, offset, limit);
+                    boolean dispatchable = vertexAnnotation != null && isDispatchable(collectionContent);
+                    if (collectionType == CollectionType.STREAM && dispatchable) {
+                        m.addStatement("return $T.stream($L).map(e -> $T.dispatch(e, graph))", FrameHelper.class, elements, getFramerClass(collectionContent));
+                    } else if (collectionType == CollectionType.STREAM) {
+                        m.addStatement("return $T.stream($L, $T.class, graph)", FrameHelper.class, elements, collectionContent);
+                    } else {
+                        CodeBlock framed = dispatchable
+                                ? CodeBlock.of("$T.frame($L, graph, $T::dispatch)", FrameHelper.class, elements, getFramerClass(collectionContent))
+                                : CodeBlock.of("graph.frame($L, $T.class)", elements, collectionContent);
+                        if (collectionType == CollectionType.SET) {
+                            m.addStatement("return new $T<>($L)", LinkedHashSet.class, framed);
+                        } else {
+                            m.addStatement("return $L", framed);
+                        }
+                    }
+                } else if (paged) {
+                    generateNotSupportedStatement("get-page-no-vertex-or-edge", method, m);
+                } else if (vertexAnnotation != null && collectionType == CollectionType.STREAM) {
+                    m.addCode("// getter-vertex-stream\n");
+                    m.addStatement("return $T.streamVertices(this, $T.$L, $S, $T.class)", FrameHelper.class, org.apache.tinkerpop.gremlin.structure.Direction.class, direction, label, collectionContent);
+                } else if (edgeAnnotation != null && collectionType == CollectionType.STREAM) {
+                    m.addCode("// getter-edge-stream\n");
+                    m.addStatement("return $T.streamEdges(this, $T.$L, $S, $T.class)", FrameHelper.class, org.apache.tinkerpop.gremlin.structure.Direction.class, direction, label, collectionContent);
+                } else if (vertexAnnotation != null && lazy) {
+                    m.addCode("// getter-vertex-collection-lazy\n");
+                    m.addStatement("return $T.lazyVertices(this, $T.$L, $S, $T.class)", FrameHelper.class, org.apache.tinkerpop.gremlin.structure.Direction.class, direction, label, collectionContent);
+                } else if (edgeAnnotation != null && lazy) {
+                    m.addCode("// getter-edge-collection-lazy\n");
+                    m.addStatement("return $T.lazyEdges(this, $T.$L, $S, $T.class)", FrameHelper.class, org.apache.tinkerpop.gremlin.structure.Direction.class, direction, label, collectionContent);
+                } else if (vertexAnnotation != null && isDispatchable(collectionContent)) {
+                    m.addCode("// getter-vertex-collection\n");
+                    m.addStatement("return $T.frame($T.vertices(this, $T.$L, $S), graph, $T::dispatch)", FrameHelper.class, FrameHelper.class, org.apache.tinkerpop.gremlin.structure.Direction.class, direction, label, getFramerClass(collectionContent));
+                } else if (vertexAnnotation != null) {
                     m.addCode("// getter-vertex-collection\n");
-                    m.addStatement("return graph().frame($L.vertices($T.$L, $S), $T.class)", elementName, org.apache.tinkerpop.gremlin.structure.Direction.class, direction, label, collectionContent);
+                    m.addStatement("return graph().frame($T.vertices(this, $T.$L, $S), $T.class)", FrameHelper.class, org.apache.tinkerpop.gremlin.structure.Direction.class, direction, label, collectionContent);
                 } else if (edgeAnnotation != null) {
                     m.addCode("// getter-edge-collection\n");
-                    m.addStatement("return graph.frame($L.edges($T.$L, $S), $T.class)", elementName, org.apache.tinkerpop.gremlin.structure.Direction.class, direction, label, collectionContent);
+                    m.addStatement("return graph.frame($T.edges(this, $T.$L, $S), $T.class)", FrameHelper.class, org.apache.tinkerpop.gremlin.structure.Direction.class, direction, label, collectionContent);
                 } else {
                     generateNotSupportedStatement("get-collection-no-vertex-or-edge", method, m);
                 }
             } else if (isVertex(method.getReturnType()) && elementType == ElementType.Vertex) {
-                m.addCode("// vertex-getter-vertex\n");
-                m.addStatement("$T<Vertex> it = v.vertices($T.$L, $S);", Iterator.class, org.apache.tinkerpop.gremlin.structure.Direction.class, direction, label)
-                        .addStatement("return it.hasNext() ? graph.frame(it.next(), $T.class) : null", method.getReturnType());
+                if (isLazyReference(method)) {
+                    m.addCode("// vertex-getter-vertex-reference\n");
+                    m.addStatement("return $T.reference(v, $T.$L, $S, graph, $T.class)", FrameHelper.class, org.apache.tinkerpop.gremlin.structure.Direction.class, direction, label, method.getReturnType());
+                } else {
+                    m.addCode("// vertex-getter-vertex\n");
+                    m.addStatement("$T<Vertex> it = v.vertices($T.$L, $S);", Iterator.class, org.apache.tinkerpop.gremlin.structure.Direction.class, direction, label);
+                    if (isDispatchable(method.getReturnType())) {
+                        m.addStatement("return it.hasNext() ? $T.dispatch(it.next(), graph) : null", getFramerClass(method.getReturnType()));
+                    } else {
+                        m.addStatement("return it.hasNext() ? graph.frame(it.next(), $T.class) : null", method.getReturnType());
+                    }
+                }
             } else if (isVertex(method.getReturnType()) && elementType != ElementType.Vertex) {
-                m.addCode("// edge-getter-vertex\n");
+                boolean reference = isLazyReference(method);
+                m.addCode(reference ? "// edge-getter-vertex-reference\n" : "// edge-getter-vertex\n");
                 boolean in = method.getAnnotation(In.class) != null;
-                m.addStatement("return graph().frame($L.$LVertex(), $T.class)", elementName, in ? "in" : "out", method.getReturnType());
+                if (reference) {
+                    m.addStatement("return graph.reference($L.$LVertex().id(), $T.class)", elementName, in ? "in" : "out", method.getReturnType());
+                } else if (isDispatchable(method.getReturnType())) {
+                    m.addStatement("return $T.dispatch($L.$LVertex(), graph)", getFramerClass(method.getReturnType()), elementName, in ? "in" : "out");
+                } else {
+                    m.addStatement("return graph().frame($L.$LVertex(), $T.class)", elementName, in ? "in" : "out", method.getReturnType());
+                }
             } else if (isEdge(method.getReturnType()) && elementType == ElementType.Vertex) {
                 m.addCode("// vertex-getter-edge\n");
                 m.addStatement("return $T.filterEdge(this, $S, (($T)$L), $T.class)", FrameHelper.class, label, FramedVertex.class, parameterName, method.getReturnType());
             } else {
                 generateNotSupportedStatement("get-no-vertex-or-edge", method, m);
             }
+        } else if (methodType == MethodType.COUNTER) {
+            m.addCode("// vertex-counter\n");
+            if (method.getReturnType().getKind() == LONG) {
+                m.addStatement("return $T.countEdges(this, $T.$L, $S)", FrameHelper.class, org.apache.tinkerpop.gremlin.structure.Direction.class, direction, label);
+            } else if (method.getReturnType().getKind() == INT) {
+                m.addStatement("return (int) $T.countEdges(this, $T.$L, $S)", FrameHelper.class, org.apache.tinkerpop.gremlin.structure.Direction.class, direction, label);
+            } else {
+                generateNotSupportedStatement("count-not-int-or-long", method, m);
+            }
+        } else if (methodType == MethodType.EXISTS || methodType == MethodType.FILTERED_EXISTS) {
+            if (method.getReturnType().getKind() != BOOLEAN) {
+                generateNotSupportedStatement("has-not-boolean", method, m);
+            } else if (methodType == MethodType.EXISTS) {
+                m.addCode("// vertex-exists\n");
+                m.addStatement("return $T.hasEdges(this, $T.$L, $S)", FrameHelper.class, org.apache.tinkerpop.gremlin.structure.Direction.class, direction, label);
+            } else {
+                m.addCode("// vertex-exists-vertex\n");
+                m.addStatement("return $T.hasEdge(this, $T.$L, $S, ($T) $L)", FrameHelper.class, org.apache.tinkerpop.gremlin.structure.Direction.class, direction, label, FramedVertex.class, parameterName);
+            }
         } else if (methodType == MethodType.SETTER) {
             m.addCode("// vertex-setter-vertex\n");
-
-            List<Object> args = new ArrayList<>();
-
-            String statement = "v.addEdge($S, ((FramedVertex)$L).vertex())";
-            args.add(label);
-            args.add(parameterName);
             if (returnClass != null && returnClass.getAnnotation(Edge.class) != null) {
-                statement = "return graph.frame(" + statement + ", $T.class)";
-                args.add(method.getReturnType());
-            }
-
-            m.addStatement("v.edges($T.OUT, $S).forEachRemaining(e -> e.remove())", org.apache.tinkerpop.gremlin.structure.Direction.class, label)
-                    .beginControlFlow("if ($L != null)", parameterName)
-                    .addStatement(statement, args.toArray());
-            if (method.getReturnType().getKind() != VOID) {
-                m.nextControlFlow("else")
-                        .addStatement("return null");
+                m.addStatement("$T edge = $T.setEdge(this, $S, ($T) $L)", org.apache.tinkerpop.gremlin.structure.Edge.class, FrameHelper.class, label, FramedVertex.class, parameterName)
+                        .addStatement("return edge != null ? graph.frame(edge, $T.class) : null", method.getReturnType());
+            } else {
+                m.addStatement("$T.setEdge(this, $S, ($T) $L)", FrameHelper.class, label, FramedVertex.class, parameterName);
             }
-            m.endControlFlow();
         } else if (methodType == MethodType.ADDER) {
             m.addCode("// vertex-adder-vertex\n");
             if (parameterClass != null && parameterClass.getAnnotation(Vertex.class) != null) {
@@ -426,12 +902,14 @@ public final class AnnotationProcessor extends AbstractProcessor {
                     args.add(method.getReturnType());
                 }
 
+                m.addStatement("$T.invalidateAdjacency(graph, $S)", FrameHelper.class, label);
                 m.addStatement(statement, args.toArray());
             } else {
                 generateNotSupportedStatement("added-without-vertex-parameter", method, m);
             }
         } else if (methodType == MethodType.REMOVER && parameterClass != null) {
             m.addCode("// vertex-remover-vertex\n");
+            m.addStatement("$T.invalidateAdjacency(graph, $S)", FrameHelper.class, label);
             if (parameterClass.getAnnotation(Vertex.class) != null) {
                 m.addStatement("$T.removeEdge(v, Direction.OUT, $S, (($T)$L).vertex())", FrameHelper.class, label, FramedVertex.class, parameterName);
             } else if (parameterClass.getAnnotation(Edge.class) != null) {
@@ -502,20 +980,75 @@ public final class AnnotationProcessor extends AbstractProcessor {
             frameNew.addStatement("return f");
         }
 
-        TypeSpec framer = TypeSpec.classBuilder(type.getSimpleName() + "Framer").addModifiers(PUBLIC, STATIC, FINAL)
+        TypeSpec.Builder framer = TypeSpec.classBuilder(type.getSimpleName() + "Framer").addModifiers(PUBLIC, STATIC, FINAL)
                 .addSuperinterface(framerInt)
-                .addAnnotation(Framer.class)
-                .addMethod(mType)
+                .addAnnotation(Framer.class);
+        if (elementType == ElementType.Vertex) {
+            ClassName framerClass = getFramerClass(type);
+            framer.addField(FieldSpec.builder(framerClass, "INSTANCE", PUBLIC, STATIC, FINAL)
+                    .initializer("new $T()", framerClass)
+                    .build());
+        }
+        framer.addMethod(mType)
                 .addMethod(frameClass)
                 .addMethod(label)
                 .addMethod(frame)
-                .addMethod(frameNew.build())
-                .build();
+                .addMethod(frameNew.build());
+        if (elementType == ElementType.Vertex) {
+            framer.addMethod(implementDispatchMethod(type));
+        }
 
-        implClass.addType(framer);
+        implClass.addType(framer.build());
 
     }
 
+    /**
+     * Generates the static {@code dispatch} method of a vertex framer. The labels of the type and its subtypes in this
+     * compilation are resolved at compile-time, so framing them does not need a registry lookup. Other labels, e.g. of
+     * subtypes compiled separately, fall back to the registry.
+     */
+    private MethodSpec implementDispatchMethod(TypeElement type) {
+        MethodSpec.Builder dispatch = MethodSpec.methodBuilder("dispatch").addModifiers(PUBLIC, STATIC)
+                .returns(ClassName.get(type))
+                .addParameter(org.apache.tinkerpop.gremlin.structure.Vertex.class, "v")
+                .addParameter(FramedGraph.class, "graph");
+
+        TypeMirror erasure = types.erasure(type.asType());
+        Map<String, List<TypeElement>> label2Types = vertexTypes.stream()
+                .filter(t -> types.isAssignable(types.erasure(t.asType()), erasure))
+                .collect(Collectors.groupingBy(this::getLabel, TreeMap::new, Collectors.toList()));
+        label2Types.values().removeIf(l -> l.size() > 1);
+
+        if (label2Types.size() == 1 && label2Types.containsKey(getLabel(type))) {
+            // monomorphic
+            dispatch.addStatement("return $S.equals(v.label()) ? graph.frame(v, INSTANCE) : graph.frame(v, $T.class)", getLabel(type), type);
+        } else {
+            dispatch.beginControlFlow("switch (v.label())");
+            label2Types.forEach((label, l) -> dispatch.addCode("case $S:\n", label)
+                    .addStatement("$>return graph.frame(v, $T.INSTANCE)$<", getFramerClass(l.get(0))));
+            dispatch.addCode("default:\n")
+                    .addStatement("$>return graph.frame(v, $T.class)$<", type)
+                    .endControlFlow();
+        }
+        return dispatch.build();
+    }
+
+    /**
+     * @return true when the vertex type is part of this compilation, so its framer has a {@code dispatch} method
+     */
+    private boolean isDispatchable(TypeMirror type) {
+        return isVertex(type) && vertexTypes.contains((TypeElement) types.asElement(type));
+    }
+
+    private ClassName getFramerClass(TypeMirror type) {
+        return getFramerClass((TypeElement) types.asElement(type));
+    }
+
+    private ClassName getFramerClass(TypeElement type) {
+        String packageName = ((PackageElement) type.getEnclosingElement()).getQualifiedName().toString();
+        return ClassName.get(packageName, type.getSimpleName() + "$Impl", type.getSimpleName() + "Framer");
+    }
+
     private void generateNotSupportedStatement(String code, ExecutableElement method, MethodSpec.Builder writer) throws IOException {
         messager.printMessage(WARNING, "Abstract method not yet supported: " + method, method.getEnclosingElement());
         writer.addCode("// TODO: this method cannot be generated and should be implemented\n");
@@ -571,7 +1104,12 @@ public final class AnnotationProcessor extends AbstractProcessor {
 
         ClassDescription description = new ClassDescription(type, toGenerate, postConstructs);
 
-        Map<String, List<ExecutableElement>> property2Methods = methods.stream().collect(Collectors.groupingBy(this::extractProperty));
+        // id getters, e.g. getFriendIds(), belong to the relationship without the Ids suffix
+        Set<String> relationships = methods.stream().filter(m -> MethodType.getType(m) != null && isRelationship(m)).map(this::extractProperty).collect(Collectors.toSet());
+        methods.stream().filter(m -> isIdGetter(m, relationships)).forEach(description::setIdGetter);
+
+        Map<String, List<ExecutableElement>> property2Methods = methods.stream()
+                .collect(Collectors.groupingBy(m -> description.isIdGetter(m) ? extractIdGetterProperty(m) : extractProperty(m)));
         property2Methods.forEach((p, l) -> parse(description, p, l));
 
         return description;
@@ -582,11 +1120,31 @@ public final class AnnotationProcessor extends AbstractProcessor {
 
         boolean isProperty = true;
 
+        // count and has methods only belong to a relationship declared by another method or an explicit @Edge
+        boolean relationship = methods.stream().anyMatch(m -> MethodType.getType(m) != null
+                && (isRelationship(m) || m.getAnnotation(Edge.class) != null));
+
         for (ExecutableElement method : methods) {
             TypeMirror singularType;
 
             MethodType type = MethodType.getType(method);
-            if (type == MethodType.SETTER || type == MethodType.REMOVER || (type == MethodType.ADDER && method.getReturnType().getKind() == VOID)) {
+            if ((type == MethodType.COUNTER || type == MethodType.EXISTS) && !relationship) {
+                messager.printMessage(WARNING, "Count and has methods require a relationship method or an @Edge annotation: " + method, method);
+                continue;
+            }
+            if (type == MethodType.COUNTER || type == MethodType.EXISTS || description.isIdGetter(method)) {
+                if (description.getElementType() != ElementType.Vertex) {
+                    messager.printMessage(ERROR, "Count, has and id getter methods are only supported on @Vertex classes: " + method);
+                    continue;
+                }
+                Edge edge = method.getAnnotation(Edge.class);
+                if (edge != null && !edge.value().isEmpty()) {
+                    label = edge.value();
+                }
+                isProperty = false;
+                continue;
+            }
+            if (type == MethodType.SETTER || type == MethodType.REMOVER || type == MethodType.FILTERED_EXISTS || (type == MethodType.ADDER && method.getReturnType().getKind() == VOID)) {
                 singularType = getSingularizedType(method.getParameters().get(0).asType());
             } else {
                 singularType = getSingularizedType(method.getReturnType());
@@ -654,6 +1212,38 @@ public final class AnnotationProcessor extends AbstractProcessor {
 
     }
 
+    /**
+     * @return whether the method returns or takes a vertex or an edge, or a collection of them
+     */
+    private boolean isRelationship(ExecutableElement method) {
+        TypeMirror type = method.getParameters().size() == 1 ? method.getParameters().get(0).asType() : method.getReturnType();
+        TypeMirror singularType = getCollectionType(type) != null ? getSingularizedType(type) : type;
+        return isVertex(singularType) || isEdge(singularType);
+    }
+
+    /**
+     * Id getters are getters named {@code get<Relationship>Ids} returning a {@code List} or {@code Collection} of ids,
+     * or a {@code long[]}. Without {@code @Edge} annotation, the relationship must be declared by another method.
+     */
+    private boolean isIdGetter(ExecutableElement method, Set<String> relationships) {
+        String name = method.getSimpleName().toString();
+        if (MethodType.getType(method) != MethodType.GETTER || !name.endsWith("Ids") || name.length() == "getIds".length()) {
+            return false;
+        }
+        TypeMirror returnType = method.getReturnType();
+        CollectionType collectionType = getCollectionType(returnType);
+        boolean longArray = returnType.getKind() == ARRAY && ((ArrayType) returnType).getComponentType().getKind() == LONG;
+        if (collectionType != CollectionType.LIST && collectionType != CollectionType.COLLECTION && !longArray) {
+            return false;
+        }
+        return method.getAnnotation(Edge.class) != null || relationships.contains(extractIdGetterProperty(method));
+    }
+
+    private String extractIdGetterProperty(ExecutableElement method) {
+        String property = MethodType.GETTER.getPropertyName(method);
+        return Inflector.getInstance().singularize(property.substring(0, property.length() - "Ids".length()));
+    }
+
     private String extractProperty(ExecutableElement method) {
         MethodType type = MethodType.getType(method);
         if (type == null) {
@@ -662,7 +1252,9 @@ public final class AnnotationProcessor extends AbstractProcessor {
         }
 
         String property = type.getPropertyName(method);
-        if (getCollectionType(method.getReturnType()) != null) {
+        if (getCollectionType(method.getReturnType()) != null
+                || (type == MethodType.REMOVER && getCollectionType(method.getParameters().get(0).asType()) != null)
+                || type == MethodType.COUNTER || type == MethodType.EXISTS || type == MethodType.FILTERED_EXISTS) {
             property = Inflector.getInstance().singularize(property);
         }
         return property;
@@ -683,6 +1275,40 @@ public final class AnnotationProcessor extends AbstractProcessor {
         }
     }
 
+    /**
+     * @return whether the paged getter takes an {@code int} or {@code long} offset and limit
+     */
+    private boolean isPage(ExecutableElement method) {
+        return method.getParameters().stream()
+                .map(p -> p.asType().getKind())
+                .allMatch(kind -> kind == INT || kind == LONG);
+    }
+
+    private boolean isLazy(ExecutableElement method) {
+        Lazy lazy = method.getAnnotation(Lazy.class);
+        if (lazy == null) {
+            lazy = method.getEnclosingElement().getAnnotation(Lazy.class);
+        }
+        return lazy == null ? lazyByDefault : lazy.value();
+    }
+
+    private boolean isLazyReference(ExecutableElement method) {
+        Lazy lazy = method.getAnnotation(Lazy.class);
+        return lazy != null && lazy.reference();
+    }
+
+    private boolean isCached(ExecutableElement method, ClassDescription description) {
+        if (!description.isProperty(method) || MethodType.getType(method) != MethodType.GETTER
+                || getCollectionType(method.getReturnType()) != null || isVertexProperty(method.getReturnType())) {
+            return false;
+        }
+        Cached cached = method.getAnnotation(Cached.class);
+        if (cached == null) {
+            cached = method.getEnclosingElement().getAnnotation(Cached.class);
+        }
+        return cached != null && cached.value();
+    }
+
     private Direction getDirection(ExecutableElement method, MethodType type) {
         Direction direction;
         if (method.getAnnotation(In.class) != null) {
@@ -692,8 +1318,8 @@ public final class AnnotationProcessor extends AbstractProcessor {
         } else {
             direction = OUT;
         }
-        if (type != MethodType.GETTER && direction != OUT) {
-            messager.printMessage(ERROR, "Direction " + direction + " only supported for getter methods currently");
+        if (!type.isQuery() && direction != OUT) {
+            messager.printMessage(ERROR, "Direction " + direction + " only supported for getter, count and has methods currently");
             direction = OUT;
         }
         return direction;
@@ -772,6 +1398,10 @@ public final class AnnotationProcessor extends AbstractProcessor {
                 TypeElement element = (TypeElement) declaredType.asElement();
                 try {
                     Class<?> clazz = Class.forName(element.getQualifiedName().toString());
+                    if (Stream.class.equals(clazz)) {
+                        return CollectionType.STREAM;
+                    }
+
                     boolean iterable = Iterable.class.isAssignableFrom(clazz);
                     if (iterable) {
                         if (List.class.equals(clazz)) {
@@ -798,7 +1428,8 @@ public final class AnnotationProcessor extends AbstractProcessor {
         LIST(List.class, Collections.class),
         COLLECTION(Collection.class, Collections.class),
         SET(Set.class, Collections.class),
-        ITERABLE(DefaultIterable.class);
+        ITERABLE(DefaultIterable.class),
+        STREAM(Stream.class);
 
         private final Class<?>[] importClass;
 
@@ -826,9 +1457,13 @@ public final class AnnotationProcessor extends AbstractProcessor {
     private enum MethodType {
         GETTER("get", 0),
         FILTERED_GETTER("get", 1),
+        PAGED_GETTER("get", 2),
         SETTER("set", 1),
         ADDER("add", 1),
-        REMOVER("remove", 1);
+        REMOVER("remove", 1),
+        COUNTER("count", 0),
+        EXISTS("has", 0),
+        FILTERED_EXISTS("has", 1);
 
         private final String prefix;
         private final int noParams;
@@ -847,6 +1482,13 @@ public final class AnnotationProcessor extends AbstractProcessor {
             return property.substring(0, 1).toLowerCase() + property.substring(1, property.length());
         }
 
+        /**
+         * @return whether the method only reads the relationship, and can follow it in any direction
+         */
+        private boolean isQuery() {
+            return this == GETTER || this == PAGED_GETTER || this == COUNTER || this == EXISTS || this == FILTERED_EXISTS;
+        }
+
         static MethodType getType(ExecutableElement method) {
             for (MethodType type : values()) {
                 if (type.isMethodType(method)) {
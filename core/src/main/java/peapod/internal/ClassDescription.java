@@ -67,6 +67,8 @@ public class ClassDescription {
 
     private final Set<ExecutableElement> properties = new HashSet<>();
 
+    private final Set<ExecutableElement> idGetters = new HashSet<>();
+
     private final Set<String> imports = new HashSet<>();
 
     public ClassDescription(TypeElement t, List<ExecutableElement> methods, List<ExecutableElement> postConstructs) {
@@ -101,6 +103,14 @@ public class ClassDescription {
         }
     }
 
+    public void setIdGetter(ExecutableElement method) {
+        idGetters.add(method);
+    }
+
+    public boolean isIdGetter(ExecutableElement method) {
+        return idGetters.contains(method);
+    }
+
     public List<ExecutableElement> getMethods() {
         return methods;
     }
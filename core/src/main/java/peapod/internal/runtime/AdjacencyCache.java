@@ -0,0 +1,144 @@
+/*
+ * Copyright 2015 Bay of Many
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * This project is derived from code in the TinkerPop project under the following license:
+ *
+ *    TinkerPop3
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ */
+
+package peapod.internal.runtime;
+
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * The incident edges of vertices by direction and label, loaded in batch by {@link peapod.FramedGraph#prefetch}.
+ * Consulted by the generated getters of linked vertices and edges, and indexed by the vertex at the other end for the
+ * edge existence checks of the generated filtered getters. Not thread-safe, every thread has its own cache.
+ */
+public final class AdjacencyCache {
+
+    private final Map<Key, List<Edge>> adjacency = new HashMap<>();
+
+    // the cached edges by the id of the vertex at the other end, built on the first lookup by vertex
+    private final Map<Key, Map<Object, List<Edge>>> endpoints = new HashMap<>();
+
+    // the cached keys by label, so that a write only discards the entries of its label
+    private final Map<String, Set<Key>> labels = new HashMap<>();
+
+    /**
+     * @return the cached edges, or {@code null} when not prefetched
+     */
+    public List<Edge> get(Vertex vertex, Direction direction, String label) {
+        return adjacency.isEmpty() ? null : adjacency.get(new Key(vertex.id(), direction, label));
+    }
+
+    /**
+     * @return the cached edges linking the vertex to the other vertex, or {@code null} when not prefetched
+     */
+    public List<Edge> get(Vertex vertex, Direction direction, String label, Vertex other) {
+        if (adjacency.isEmpty()) {
+            return null;
+        }
+        Key key = new Key(vertex.id(), direction, label);
+        List<Edge> edges = adjacency.get(key);
+        if (edges == null) {
+            return null;
+        }
+        Map<Object, List<Edge>> index = endpoints.computeIfAbsent(key, k -> index(vertex, direction, edges));
+        return index.getOrDefault(other.id(), Collections.emptyList());
+    }
+
+    public void put(Vertex vertex, Direction direction, String label, List<Edge> edges) {
+        Key key = new Key(vertex.id(), direction, label);
+        adjacency.put(key, edges);
+        endpoints.remove(key);
+        labels.computeIfAbsent(label, l -> new HashSet<>()).add(key);
+    }
+
+    /**
+     * Discards all cached edges with the given label, e.g. after an edge is added or removed.
+     */
+    public void invalidate(String label) {
+        Set<Key> keys = labels.remove(label);
+        if (keys != null) {
+            adjacency.keySet().removeAll(keys);
+            endpoints.keySet().removeAll(keys);
+        }
+    }
+
+    public void clear() {
+        adjacency.clear();
+        endpoints.clear();
+        labels.clear();
+    }
+
+    private static Map<Object, List<Edge>> index(Vertex vertex, Direction direction, List<Edge> edges) {
+        Map<Object, List<Edge>> index = new HashMap<>();
+        for (Edge edge : edges) {
+            Vertex other;
+            if (direction == Direction.OUT) {
+                other = edge.inVertex();
+            } else if (direction == Direction.IN) {
+                other = edge.outVertex();
+            } else {
+                other = edge.outVertex().equals(vertex) ? edge.inVertex() : edge.outVertex();
+            }
+            index.computeIfAbsent(other.id(), id -> new ArrayList<>(1)).add(edge);
+        }
+        return index;
+    }
+
+    private static final class Key {
+
+        private final Object id;
+        private final Direction direction;
+        private final String label;
+
+        private Key(Object id, Direction direction, String label) {
+            this.id = id;
+            this.direction = direction;
+            this.label = label;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return id.equals(key.id) && direction == key.direction && label.equals(key.label);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(id, direction, label);
+        }
+    }
+}
@@ -21,47 +21,234 @@
 
 package peapod.internal.runtime;
 
+import org.apache.tinkerpop.gremlin.process.traversal.Order;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
 import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Property;
+import org.apache.tinkerpop.gremlin.structure.T;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+import peapod.FramedGraph;
 import peapod.FramedVertex;
 
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.List;
+import java.util.*;
+import java.util.function.BiFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class FrameHelper {
 
-    public static void removeEdge(Vertex start, Direction direction, String label, Vertex end) {
+    /**
+     * Frames a {@link LazyVertex} reference to the first vertex linked to the given vertex. Only the id of the other
+     * end of the first matching edge is read, the linked vertex is not loaded.
+     *
+     * @return the reference, or null when no edge matches
+     */
+    public static <F> F reference(Vertex vertex, Direction direction, String label, FramedGraph graph, Class<F> frameClass) {
+        Iterator<Edge> it = vertex.edges(direction, label);
+        if (!it.hasNext()) {
+            return null;
+        }
+        Edge edge = it.next();
+        Object id;
         if (direction == Direction.OUT) {
-            start.edges(direction, label).forEachRemaining(e -> {
-                if (e.inVertex().equals(end)) {
-                    e.remove();
-                }
-            });
+            id = edge.inVertex().id();
         } else if (direction == Direction.IN) {
-            start.edges(direction, label).forEachRemaining(e -> {
-                if (e.outVertex().equals(end)) {
-                    e.remove();
-                }
-            });
+            id = edge.outVertex().id();
+        } else {
+            Object outId = edge.outVertex().id();
+            id = outId.equals(vertex.id()) ? edge.inVertex().id() : outId;
+        }
+        return graph.reference(id, frameClass);
+    }
+
+    public static void removeEdge(Vertex start, Direction direction, String label, Vertex end) {
+        if (direction == Direction.OUT || direction == Direction.IN) {
+            edges(start, direction, label, end).toList().forEach(Edge::remove);
+        }
+    }
+
+    /**
+     * Links the vertex to the target by a single outgoing edge. The edge to the target is kept when present,
+     * including its properties. Other edges with the label are removed.
+     *
+     * @param target the linked vertex, or {@code null} to remove the link
+     * @return the edge to the target, or {@code null} when there is no target
+     */
+    public static Edge setEdge(FramedVertex framedVertex, String label, FramedVertex target) {
+        Vertex vertex = framedVertex.vertex();
+        Vertex end = target == null ? null : target.vertex();
+        Edge result = null;
+        boolean changed = false;
+
+        Iterator<Edge> it = vertex.edges(Direction.OUT, label);
+        while (it.hasNext()) {
+            Edge edge = it.next();
+            if (result == null && end != null && edge.inVertex().equals(end)) {
+                result = edge;
+            } else {
+                edge.remove();
+                changed = true;
+            }
         }
+        if (result == null && end != null) {
+            result = vertex.addEdge(label, end);
+            changed = true;
+        }
+
+        if (changed) {
+            invalidateAdjacency(framedVertex.graph(), label);
+        }
+        return result;
     }
 
     public static <T> T filterEdge(FramedVertex framedVertex, String label, FramedVertex link, Class<T> framedClass) {
         if (link == null) {
             Iterator<Edge> it = framedVertex.vertex().edges(Direction.OUT, label);
             return it.hasNext() ? framedVertex.graph().frame(it.next(), framedClass) : null;
+        }
+
+        AdjacencyCache cache = framedVertex.graph().adjacencyCache();
+        List<Edge> cached = cache == null ? null : cache.get(framedVertex.vertex(), Direction.OUT, label, link.vertex());
+        if (cached != null) {
+            return cached.isEmpty() ? null : framedVertex.graph().frame(cached.get(0), framedClass);
+        }
+        Iterator<Edge> it = edges(framedVertex.vertex(), Direction.OUT, label, link.vertex());
+        return it.hasNext() ? framedVertex.graph().frame(it.next(), framedClass) : null;
+    }
+
+    /**
+     * The edges between both vertices, filtered by the traversal so that backends with vertex-centric indices do not
+     * have to iterate all edges with the label.
+     */
+    private static GraphTraversal<Vertex, Edge> edges(Vertex start, Direction direction, String label, Vertex end) {
+        GraphTraversal<Vertex, Vertex> traversal = start.graph().traversal().V(start);
+        if (direction == Direction.OUT) {
+            return traversal.outE(label).where(__.inV().is(end));
+        } else if (direction == Direction.IN) {
+            return traversal.inE(label).where(__.outV().is(end));
         } else {
-            Iterator<Edge> it = framedVertex.vertex().edges(Direction.OUT, label);
-            while (it.hasNext()) {
-                Edge edge = it.next();
-                if (edge.inVertex().equals(link.vertex())) {
-                    return framedVertex.graph().frame(edge, framedClass);
-                }
+            return traversal.bothE(label).where(__.bothV().is(end));
+        }
+    }
+
+    /**
+     * The linked vertices, from the adjacency cache when prefetched by {@link FramedGraph#prefetch}.
+     */
+    public static Iterator<Vertex> vertices(FramedVertex framedVertex, Direction direction, String label) {
+        Vertex vertex = framedVertex.vertex();
+        List<Edge> edges = cachedEdges(framedVertex, direction, label);
+        if (edges == null) {
+            return vertex.vertices(direction, label);
+        }
+        List<Vertex> result = new ArrayList<>(edges.size());
+        for (Edge edge : edges) {
+            if (direction == Direction.OUT) {
+                result.add(edge.inVertex());
+            } else if (direction == Direction.IN) {
+                result.add(edge.outVertex());
+            } else {
+                Vertex out = edge.outVertex();
+                result.add(out.equals(vertex) ? edge.inVertex() : out);
             }
-            return null;
+        }
+        return result.iterator();
+    }
+
+    /**
+     * The ids of the linked vertices, without framing them.
+     */
+    @SuppressWarnings("unchecked")
+    public static <I> List<I> vertexIds(FramedVertex framedVertex, Direction direction, String label) {
+        List<I> result = new ArrayList<>();
+        Iterator<Vertex> it = vertices(framedVertex, direction, label);
+        while (it.hasNext()) {
+            result.add((I) it.next().id());
+        }
+        return result;
+    }
+
+    /**
+     * The numeric ids of the linked vertices, without framing them or boxing the result.
+     */
+    public static long[] longVertexIds(FramedVertex framedVertex, Direction direction, String label) {
+        long[] result = new long[16];
+        int size = 0;
+        Iterator<Vertex> it = vertices(framedVertex, direction, label);
+        while (it.hasNext()) {
+            Object id = it.next().id();
+            if (!(id instanceof Number)) {
+                throw new IllegalStateException("Vertex id is not numeric: " + id);
+            }
+            if (size == result.length) {
+                result = Arrays.copyOf(result, size * 2);
+            }
+            result[size++] = ((Number) id).longValue();
+        }
+        return size == result.length ? result : Arrays.copyOf(result, size);
+    }
+
+    /**
+     * The incident edges, from the adjacency cache when prefetched by {@link FramedGraph#prefetch}.
+     */
+    public static Iterator<Edge> edges(FramedVertex framedVertex, Direction direction, String label) {
+        List<Edge> edges = cachedEdges(framedVertex, direction, label);
+        return edges == null ? framedVertex.vertex().edges(direction, label) : edges.iterator();
+    }
+
+    /**
+     * The linked vertices, ordered by a property of the vertices and limited to a page by the traversal.
+     *
+     * @param orderBy the property to order by, or {@code null} for the adjacency order
+     * @param offset  the number of vertices to skip
+     * @param limit   the maximum number of vertices, or {@code -1} for all remaining vertices
+     */
+    public static Iterator<Vertex> vertices(FramedVertex framedVertex, Direction direction, String label, String orderBy, Order order, long offset, long limit) {
+        Vertex vertex = framedVertex.vertex();
+        return page(vertex.graph().traversal().V(vertex).to(direction, label), orderBy, order, offset, limit);
+    }
+
+    /**
+     * The incident edges, ordered by a property of the edges and limited to a page by the traversal.
+     *
+     * @param orderBy the property to order by, or {@code null} for the adjacency order
+     * @param offset  the number of edges to skip
+     * @param limit   the maximum number of edges, or {@code -1} for all remaining edges
+     */
+    public static Iterator<Edge> edges(FramedVertex framedVertex, Direction direction, String label, String orderBy, Order order, long offset, long limit) {
+        Vertex vertex = framedVertex.vertex();
+        return page(vertex.graph().traversal().V(vertex).toE(direction, label), orderBy, order, offset, limit);
+    }
+
+    private static <E> GraphTraversal<Vertex, E> page(GraphTraversal<Vertex, E> traversal, String orderBy, Order order, long offset, long limit) {
+        if (offset < 0 || limit < -1) {
+            throw new IllegalArgumentException("Invalid page with offset " + offset + " and limit " + limit);
+        }
+        if (orderBy != null) {
+            traversal.order().by(orderBy, order);
+        }
+        if (offset > 0 || limit >= 0) {
+            traversal.range(offset, limit < 0 ? -1 : offset + limit);
+        }
+        return traversal;
+    }
+
+    private static List<Edge> cachedEdges(FramedVertex framedVertex, Direction direction, String label) {
+        AdjacencyCache cache = framedVertex.graph().adjacencyCache();
+        return cache == null ? null : cache.get(framedVertex.vertex(), direction, label);
+    }
+
+    /**
+     * Discards the prefetched edges with the given label after an edge was added or removed.
+     */
+    public static void invalidateAdjacency(FramedGraph graph, String label) {
+        AdjacencyCache cache = graph.adjacencyCache();
+        if (cache != null) {
+            cache.invalidate(label);
         }
     }
 
@@ -69,20 +256,118 @@ public class FrameHelper {
         return framedVertex.graph().frame(framedVertex.vertex().vertices(direction, label), frameClass);
     }
 
+    public static <T> List<T> lazyVertices(FramedVertex framedVertex, Direction direction, String label, Class<T> frameClass) {
+        return new LazyFramedList<>(() -> vertices(framedVertex, direction, label), () -> countEdges(framedVertex, direction, label), frameClass, framedVertex.graph());
+    }
+
+    public static <T> List<T> lazyEdges(FramedVertex framedVertex, Direction direction, String label, Class<T> frameClass) {
+        return new LazyFramedList<>(() -> edges(framedVertex, direction, label), () -> countEdges(framedVertex, direction, label), frameClass, framedVertex.graph());
+    }
+
+    public static <T> Stream<T> streamVertices(FramedVertex framedVertex, Direction direction, String label, Class<T> frameClass) {
+        return stream(vertices(framedVertex, direction, label), frameClass, framedVertex.graph());
+    }
+
+    public static <T> Stream<T> streamEdges(FramedVertex framedVertex, Direction direction, String label, Class<T> frameClass) {
+        return stream(edges(framedVertex, direction, label), frameClass, framedVertex.graph());
+    }
+
+    public static <T> Stream<T> streamVertexProperties(FramedVertex framedVertex, String label, Class<T> frameClass) {
+        return stream(framedVertex.vertex().properties(label), frameClass, framedVertex.graph());
+    }
+
+    public static <E extends Element, T> Stream<T> stream(Iterator<E> it, Class<T> frameClass, FramedGraph graph) {
+        return stream(it).map(e -> graph.frame(e, frameClass));
+    }
+
+    /**
+     * Sequential stream pulling from the iterator on demand. Closing the stream closes the iterator
+     * when it holds backend resources.
+     */
+    public static <V> Stream<V> stream(Iterator<V> it) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(it, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(() -> close(it));
+    }
+
+    static void close(Iterator<?> it) {
+        if (it instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) it).close();
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    /**
+     * The number of edges, from the adjacency cache when prefetched by {@link FramedGraph#prefetch}.
+     */
+    public static long countEdges(FramedVertex framedVertex, Direction direction, String label) {
+        List<Edge> edges = cachedEdges(framedVertex, direction, label);
+        return edges != null ? edges.size() : countEdges(framedVertex.vertex(), direction, label);
+    }
+
+    /**
+     * Whether the vertex has any edge, without loading more than one.
+     */
+    public static boolean hasEdges(FramedVertex framedVertex, Direction direction, String label) {
+        List<Edge> edges = cachedEdges(framedVertex, direction, label);
+        if (edges != null) {
+            return !edges.isEmpty();
+        }
+        Iterator<Edge> it = framedVertex.vertex().edges(direction, label);
+        boolean result = it.hasNext();
+        close(it);
+        return result;
+    }
+
+    /**
+     * Whether the vertices are linked, without loading the edges to other vertices.
+     */
+    public static boolean hasEdge(FramedVertex framedVertex, Direction direction, String label, FramedVertex other) {
+        if (other == null) {
+            return false;
+        }
+        AdjacencyCache cache = framedVertex.graph().adjacencyCache();
+        List<Edge> cached = cache == null ? null : cache.get(framedVertex.vertex(), direction, label, other.vertex());
+        if (cached != null) {
+            return !cached.isEmpty();
+        }
+        GraphTraversal<Vertex, Edge> edges = edges(framedVertex.vertex(), direction, label, other.vertex());
+        boolean result = edges.hasNext();
+        close(edges);
+        return result;
+    }
+
+    public static long countEdges(Vertex vertex, Direction direction, String label) {
+        GraphTraversal<Vertex, Vertex> start = vertex.graph().traversal().V(vertex);
+        GraphTraversal<Vertex, Edge> edges;
+        if (direction == Direction.OUT) {
+            edges = start.outE(label);
+        } else if (direction == Direction.IN) {
+            edges = start.inE(label);
+        } else {
+            edges = start.bothE(label);
+        }
+        return edges.count().next();
+    }
+
     public static <V, F> F filterVertexProperty(FramedVertex framedVertex, String label, V value, Class<F> frameClass) {
         if (value == null) {
             throw new IllegalArgumentException("Filter value is <null>");
         }
 
-        Iterator<VertexProperty<V>> it = framedVertex.vertex().properties(label);
-        while (it.hasNext()) {
-            VertexProperty<V> vertexProperty = it.next();
-            if (value.equals(vertexProperty.value())) {
-                return framedVertex.graph().frame(vertexProperty, frameClass);
-            }
-        }
+        Iterator<VertexProperty<V>> it = FrameHelper.<V>vertexProperties(framedVertex.vertex(), label).has(T.value, value).limit(1);
+        return it.hasNext() ? framedVertex.graph().frame(it.next(), frameClass) : null;
+    }
 
-        return null;
+    /**
+     * Frames the elements with a framing function resolved at compile-time, bypassing the registry lookup per element.
+     */
+    public static <E extends Element, F> List<F> frame(Iterator<E> it, FramedGraph graph, BiFunction<E, FramedGraph, F> framer) {
+        List<F> result = new ArrayList<>();
+        it.forEachRemaining(e -> result.add(framer.apply(e, graph)));
+        return Collections.unmodifiableList(result);
     }
 
     public static <V> List<V> toList(Iterator<V> it) {
@@ -91,18 +376,51 @@ public class FrameHelper {
         return result;
     }
 
+    /**
+     * Writes the property values to the element, skipping values equal to the current ones.
+     *
+     * @param properties the values by key, {@code null} to remove the property
+     */
+    public static void writeProperties(Element element, Map<String, Object> properties) {
+        properties.forEach((key, value) -> {
+            Property<Object> property = element.property(key);
+            if (value == null) {
+                if (property.isPresent()) {
+                    property.remove();
+                }
+            } else if (!property.isPresent() || !value.equals(property.value())) {
+                element.property(key, value);
+            }
+        });
+    }
+
     public static <V> void removeVertexProperty(FramedVertex framedVertex, String label, V value) {
         if (value == null) {
             throw new IllegalArgumentException("Filter value is <null>");
         }
 
-        Iterator<VertexProperty<V>> it = framedVertex.vertex().properties(label);
-        while (it.hasNext()) {
-            VertexProperty<V> vertexProperty = it.next();
-            if (value.equals(vertexProperty.value())) {
-                vertexProperty.remove();
-                return;
-            }
+        Iterator<VertexProperty<V>> it = FrameHelper.<V>vertexProperties(framedVertex.vertex(), label).has(T.value, value).limit(1);
+        if (it.hasNext()) {
+            it.next().remove();
+        }
+    }
+
+    /**
+     * Removes all properties with the label having one of the values, in a single traversal.
+     */
+    public static <V> void removeVertexProperties(FramedVertex framedVertex, String label, Collection<V> values) {
+        if (values.isEmpty()) {
+            return;
         }
+        vertexProperties(framedVertex.vertex(), label).has(T.value, P.within(values)).toList().forEach(VertexProperty::remove);
+    }
+
+    /**
+     * The properties with the label, as a traversal so that filters on their value are pushed down to backends with
+     * vertex-centric indices.
+     */
+    @SuppressWarnings("unchecked")
+    private static <V> GraphTraversal<Vertex, VertexProperty<V>> vertexProperties(Vertex vertex, String label) {
+        return (GraphTraversal) vertex.graph().traversal().V(vertex).properties(label);
     }
 }
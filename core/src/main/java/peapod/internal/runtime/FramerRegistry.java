@@ -23,41 +23,217 @@ package peapod.internal.runtime;
 
 import org.apache.commons.lang.ClassUtils;
 import org.apache.tinkerpop.gremlin.structure.Element;
+import org.reflections.Reflections;
+import org.reflections.util.ClasspathHelper;
+import org.reflections.vfs.Vfs;
 
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
+import java.lang.ref.WeakReference;
+import java.net.URL;
+import java.util.*;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
-public class FramerRegistry {
+/**
+ * Immutable lookup of the framers by label and framing class. A registry is thread-safe and can be shared by
+ * all {@link peapod.FramedGraph} instances framing the same packages.
+ * <p>At construction all labels are assigned a dense index, with one framer table per element kind. Framing an element
+ * costs a {@link ClassValue} lookup of its kind table and a label lookup in an open addressing table.</p>
+ */
+public final class FramerRegistry {
 
-    private final Map<String, IFramer<?, ?>> vertexFramers = new HashMap<>();
-    private final Map<String, IFramer<?, ?>> vertexPropertyFramers = new HashMap<>();
-    private final Map<String, IFramer<?, ?>> edgeFramers = new HashMap<>();
+    // the registries of the class loader of this class and its parents, which cannot outlive this class
+    private static final Map<Set<String>, FramerRegistry> registries = new HashMap<>();
 
-    private final Map<Class<?>, IFramer<?, ?>> framers = new HashMap<>();
+    // the registries of other class loaders, weakly held as their framers reference the class loader
+    private static final Map<ClassLoader, Map<Set<String>, WeakReference<FramerRegistry>>> childRegistries = new WeakHashMap<>();
 
-    private final Map<Class<?>, String[]> class2Labels = new HashMap<>();
+    // the class files of the framers generated by the annotation processor
+    private static final Pattern GENERATED_FRAMER = Pattern.compile(".*\\$Impl\\$[^/$]+Framer\\.class");
 
+    private static final List<Class<?>> ELEMENT_KINDS = Arrays.asList(
+            org.apache.tinkerpop.gremlin.structure.Vertex.class,
+            org.apache.tinkerpop.gremlin.structure.Edge.class,
+            org.apache.tinkerpop.gremlin.structure.VertexProperty.class);
 
-    @SuppressWarnings("unchecked")
-    public void register(Set<Class<?>> classes) {
+    private final LabelIndex labelIndex;
+
+    private final IFramer<?, ?>[][] labelFramers;
+
+    private final Map<Class<?>, IFramer<?, ?>> framers;
+
+    private final Map<Class<?>, String[]> class2Labels;
+
+    private final ClassValue<IFramer<?, ?>[]> elementClass2LabelFramers = new ClassValue<IFramer<?, ?>[]>() {
+        @Override
+        protected IFramer<?, ?>[] computeValue(Class<?> elementClass) {
+            for (int kind = 0; kind < ELEMENT_KINDS.size(); kind++) {
+                if (ELEMENT_KINDS.get(kind).isAssignableFrom(elementClass)) {
+                    return labelFramers[kind];
+                }
+            }
+            return null;
+        }
+    };
+
+    private final ClassValue<IFramer<?, ?>> class2Framer = new ClassValue<IFramer<?, ?>>() {
+        @Override
+        protected IFramer<?, ?> computeValue(Class<?> clazz) {
+            return framers.get(clazz);
+        }
+    };
+
+    public FramerRegistry(Collection<? extends IFramer<?, ?>> framerList) {
+        Map<Class<?>, IFramer<?, ?>> framers = new HashMap<>();
+        framerList.forEach(framer -> framers.put(framer.frameClass(), framer));
+
+        this.labelIndex = new LabelIndex(framerList.stream().map(IFramer::label).collect(Collectors.toList()));
+        this.labelFramers = new IFramer<?, ?>[ELEMENT_KINDS.size()][labelIndex.size()];
+        framerList.forEach(framer -> {
+            int kind = ELEMENT_KINDS.indexOf(framer.type());
+            if (kind >= 0) {
+                labelFramers[kind][labelIndex.indexOf(framer.label())] = framer;
+            }
+        });
+
+        this.framers = Collections.unmodifiableMap(framers);
+        this.class2Labels = Collections.unmodifiableMap(computeClass2Labels(framers));
+    }
+
+    /**
+     * Returns the registry of all framers in the given packages and their sub packages, for the context class loader.
+     * The registry is built once per class loader and set of packages and shared afterwards.
+     * <p>Registries of the class loader of peapod and its parents are cached for good. Registries of other class
+     * loaders, e.g. of an application deployed next to a shared peapod library, are only cached while they are in
+     * use, so the class loader can be collected after the application is undeployed. Such applications should keep
+     * the registry and pass it to {@link peapod.FramedGraph#FramedGraph(org.apache.tinkerpop.gremlin.structure.Graph, FramerRegistry)}.</p>
+     */
+    public static FramerRegistry forPackages(Package... packages) {
+        Set<String> packageNames = Arrays.stream(packages).map(Package::getName).collect(Collectors.toCollection(TreeSet::new));
+        packageNames = Collections.unmodifiableSet(packageNames);
+        ClassLoader classLoader = classLoader();
+        if (isOwnClassLoader(classLoader)) {
+            synchronized (registries) {
+                return registries.computeIfAbsent(packageNames, p -> load(p, classLoader));
+            }
+        }
+        synchronized (childRegistries) {
+            Map<Set<String>, WeakReference<FramerRegistry>> loaderRegistries = childRegistries.computeIfAbsent(classLoader, l -> new HashMap<>());
+            WeakReference<FramerRegistry> reference = loaderRegistries.get(packageNames);
+            FramerRegistry registry = reference == null ? null : reference.get();
+            if (registry == null) {
+                registry = load(packageNames, classLoader);
+                loaderRegistries.put(packageNames, new WeakReference<>(registry));
+            }
+            return registry;
+        }
+    }
+
+    private static boolean isOwnClassLoader(ClassLoader classLoader) {
+        for (ClassLoader own = FramerRegistry.class.getClassLoader(); own != null; own = own.getParent()) {
+            if (own == classLoader) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Builds a new registry of all framers in the given packages and their sub packages. The compile-time generated
+     * {@link FramerIndex} classes are used when available, otherwise the classpath is scanned. When only part of a
+     * package is indexed, e.g. a sub package in a jar built by an older version, the class files of the package are
+     * listed to add the generated framers no index covers.
+     */
+    public static FramerRegistry load(Package... packages) {
+        return load(Arrays.stream(packages).map(Package::getName).collect(Collectors.toList()), classLoader());
+    }
+
+    private static FramerRegistry load(Collection<String> packageNames, ClassLoader classLoader) {
+        List<IFramer<?, ?>> result = new ArrayList<>();
+        for (String packageName : packageNames) {
+            List<IFramer<?, ?>> indexed = loadIndexedFramers(packageName, classLoader);
+            if (indexed.isEmpty()) {
+                result.addAll(instantiate(new Reflections(packageName + ".").getTypesAnnotatedWith(Framer.class)));
+            } else {
+                result.addAll(indexed);
+                result.addAll(instantiate(findUnindexedFramers(packageName, classLoader, indexed)));
+            }
+        }
+        return new FramerRegistry(result);
+    }
+
+    /**
+     * Builds a new registry from the given {@link Framer} annotated classes.
+     */
+    public static FramerRegistry fromClasses(Set<Class<?>> classes) {
+        return new FramerRegistry(instantiate(classes));
+    }
+
+    private static List<IFramer<?, ?>> instantiate(Set<Class<?>> classes) {
+        List<IFramer<?, ?>> result = new ArrayList<>();
         classes.forEach(c -> {
             try {
-                IFramer framer = (IFramer) c.newInstance();
-                framers.put(framer.frameClass(), framer);
-                if (org.apache.tinkerpop.gremlin.structure.Vertex.class.equals(framer.type())) {
-                    vertexFramers.put(framer.label(), framer);
-                } else if (org.apache.tinkerpop.gremlin.structure.Edge.class.equals(framer.type())) {
-                    edgeFramers.put(framer.label(), framer);
-                } else if (org.apache.tinkerpop.gremlin.structure.VertexProperty.class.equals(framer.type())) {
-                    vertexPropertyFramers.put(framer.label(), framer);
-                }
+                result.add((IFramer<?, ?>) c.newInstance());
             } catch (InstantiationException | IllegalAccessException e) {
                 throw new RuntimeException(e);
             }
         });
+        return result;
+    }
+
+    private static ClassLoader classLoader() {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        return classLoader != null ? classLoader : FramerRegistry.class.getClassLoader();
+    }
 
+    private static List<IFramer<?, ?>> loadIndexedFramers(String packageName, ClassLoader classLoader) {
+        List<IFramer<?, ?>> result = new ArrayList<>();
+        Iterator<FramerIndex> it = ServiceLoader.load(FramerIndex.class, classLoader).iterator();
+        while (it.hasNext()) {
+            FramerIndex index;
+            try {
+                index = it.next();
+            } catch (ServiceConfigurationError e) {
+                // stale service entry, e.g. a removed package
+                continue;
+            }
+            String indexPackage = index.packageName();
+            if (indexPackage.equals(packageName) || indexPackage.startsWith(packageName + ".")) {
+                result.addAll(index.framers());
+            }
+        }
+        return result;
+    }
+
+    private static Set<Class<?>> findUnindexedFramers(String packageName, ClassLoader classLoader, List<IFramer<?, ?>> indexed) {
+        Set<String> indexedClasses = indexed.stream().map(f -> f.getClass().getName()).collect(Collectors.toSet());
+        String prefix = packageName.replace('.', '/') + "/";
+        Set<Class<?>> result = new LinkedHashSet<>();
+        for (URL url : ClasspathHelper.forPackage(packageName, classLoader)) {
+            Vfs.Dir dir = Vfs.fromURL(url);
+            try {
+                for (Vfs.File file : dir.getFiles()) {
+                    String path = file.getRelativePath();
+                    if (!path.startsWith(prefix) || !GENERATED_FRAMER.matcher(path).matches()) {
+                        continue;
+                    }
+                    String className = path.substring(0, path.length() - ".class".length()).replace('/', '.');
+                    if (!indexedClasses.contains(className)) {
+                        Class<?> framerClass = Class.forName(className, false, classLoader);
+                        if (framerClass.isAnnotationPresent(Framer.class)) {
+                            result.add(framerClass);
+                        }
+                    }
+                }
+            } catch (ClassNotFoundException e) {
+                throw new RuntimeException(e);
+            } finally {
+                dir.close();
+            }
+        }
+        return result;
+    }
+
+    private static Map<Class<?>, String[]> computeClass2Labels(Map<Class<?>, IFramer<?, ?>> framers) {
         Map<Class<?>, HashSet<String>> tmpClass2Labels = new HashMap<>();
         framers.values().forEach(f -> {
             String label = f.label();
@@ -77,21 +253,24 @@ public class FramerRegistry {
                 aClass = aClass.getSuperclass();
             }
         });
+
+        Map<Class<?>, String[]> class2Labels = new HashMap<>();
         tmpClass2Labels.forEach(((aClass, labels) -> class2Labels.put(aClass, labels.toArray(new String[labels.size()]))));
+        return class2Labels;
     }
 
     @SuppressWarnings("unchecked")
     public <E extends Element, F> IFramer<E, F> get(E e, Class<F> clazz) {
         IFramer<E, F> framer = null;
-        if (e instanceof org.apache.tinkerpop.gremlin.structure.Vertex) {
-            framer = (IFramer<E, F>) vertexFramers.get(e.label());
-        } else if (e instanceof org.apache.tinkerpop.gremlin.structure.Edge) {
-            framer = (IFramer<E, F>) edgeFramers.get(e.label());
-        } else if (e instanceof org.apache.tinkerpop.gremlin.structure.VertexProperty) {
-            framer = (IFramer<E, F>) vertexPropertyFramers.get(e.label());
+        IFramer<?, ?>[] kindFramers = elementClass2LabelFramers.get(e.getClass());
+        if (kindFramers != null) {
+            int index = labelIndex.indexOf(e.label());
+            if (index >= 0) {
+                framer = (IFramer<E, F>) kindFramers[index];
+            }
         }
-        if (framer == null) {
-            framer = (IFramer<E, F>) framers.get(clazz);
+        if (framer == null && clazz != null) {
+            framer = (IFramer<E, F>) class2Framer.get(clazz);
         }
         if (framer == null) {
             throw new RuntimeException("No framer found for " + e.getClass().getSimpleName() + " with label " + e.label());
@@ -101,7 +280,7 @@ public class FramerRegistry {
 
     @SuppressWarnings("unchecked")
     public <E extends Element, F> IFramer<E, F> get(Class<F> clazz) {
-        IFramer<E, F> framer = (IFramer<E, F>) framers.get(clazz);
+        IFramer<E, F> framer = (IFramer<E, F>) class2Framer.get(clazz);
         if (framer == null) {
             throw new RuntimeException("No framer found for " + clazz);
         }
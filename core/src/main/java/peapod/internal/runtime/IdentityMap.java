@@ -0,0 +1,101 @@
+/*
+ * Copyright 2015 Bay of Many
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * This project is derived from code in the TinkerPop project under the following license:
+ *
+ *    TinkerPop3
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ */
+
+package peapod.internal.runtime;
+
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import peapod.FramedGraph;
+
+import java.lang.ref.SoftReference;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded identity map of framed vertices and edges keyed by element id. The least recently used entries are
+ * evicted once the maximum size is reached, and the framed instances are softly referenced so they can be
+ * reclaimed under memory pressure. Not thread-safe, an identity map is bound to a single transaction.
+ */
+public final class IdentityMap {
+
+    private final Map<Object, SoftReference<Object>> vertices;
+    private final Map<Object, SoftReference<Object>> edges;
+
+    public IdentityMap(int maxSize) {
+        this.vertices = new BoundedMap(maxSize);
+        this.edges = new BoundedMap(maxSize);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <E extends Element, F> F frame(E element, IFramer<E, F> framer, FramedGraph graph) {
+        Map<Object, SoftReference<Object>> map = map(element);
+        if (map == null) {
+            return framer.frame(element, graph);
+        }
+
+        SoftReference<Object> reference = map.get(element.id());
+        Object framed = reference == null ? null : reference.get();
+        if (framer.frameClass().isInstance(framed)) {
+            return (F) framed;
+        }
+
+        F f = framer.frame(element, graph);
+        map.put(element.id(), new SoftReference<>(f));
+        return f;
+    }
+
+    public void put(Element element, Object framed) {
+        Map<Object, SoftReference<Object>> map = map(element);
+        if (map != null) {
+            map.put(element.id(), new SoftReference<>(framed));
+        }
+    }
+
+    public void clear() {
+        vertices.clear();
+        edges.clear();
+    }
+
+    private Map<Object, SoftReference<Object>> map(Element element) {
+        if (element instanceof Vertex) {
+            return vertices;
+        } else if (element instanceof Edge) {
+            return edges;
+        }
+        return null;
+    }
+
+    private static final class BoundedMap extends LinkedHashMap<Object, SoftReference<Object>> {
+
+        private final int maxSize;
+
+        BoundedMap(int maxSize) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Object, SoftReference<Object>> eldest) {
+            return size() > maxSize;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2015 Bay of Many
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * This project is derived from code in the TinkerPop project under the following license:
+ *
+ *    TinkerPop3
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ */
+
+package peapod.internal.runtime;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Immutable open addressing hash table assigning a dense index to each label. The labels are interned, so the lookup
+ * of a label coming from a string literal usually succeeds on the identity check.
+ */
+final class LabelIndex {
+
+    private final String[] keys;
+    private final int[] indices;
+    private final int mask;
+    private final int size;
+
+    LabelIndex(Collection<String> labels) {
+        Set<String> unique = new LinkedHashSet<>(labels);
+        int capacity = Integer.highestOneBit(Math.max(2, unique.size() * 2) - 1) << 1;
+
+        keys = new String[capacity];
+        indices = new int[capacity];
+        mask = capacity - 1;
+        size = unique.size();
+
+        int index = 0;
+        for (String label : unique) {
+            int slot = spread(label.hashCode()) & mask;
+            while (keys[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = label.intern();
+            indices[slot] = index++;
+        }
+    }
+
+    /**
+     * @return the index of the label, or -1 when unknown
+     */
+    int indexOf(String label) {
+        int slot = spread(label.hashCode()) & mask;
+        String key;
+        while ((key = keys[slot]) != null) {
+            if (key == label || key.equals(label)) {
+                return indices[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2015 Bay of Many
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * This project is derived from code in the TinkerPop project under the following license:
+ *
+ *    TinkerPop3
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ */
+
+package peapod.internal.runtime;
+
+import org.apache.tinkerpop.gremlin.structure.Element;
+import peapod.FramedGraph;
+
+import java.util.*;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Unmodifiable list view that frames the elements while iterating. Each iteration re-queries the graph,
+ * {@code size()} is delegated to a count and positional access walks the elements without framing them.
+ * Backend iterators holding resources are closed once exhausted, when the returned iterator or stream is
+ * closed, and right away by {@code get} and {@code isEmpty}.
+ */
+public final class LazyFramedList<E extends Element, F> extends AbstractList<F> {
+
+    private final Supplier<Iterator<E>> elements;
+    private final LongSupplier count;
+    private final Class<F> frameClass;
+    private final FramedGraph graph;
+
+    public LazyFramedList(Supplier<Iterator<E>> elements, LongSupplier count, Class<F> frameClass, FramedGraph graph) {
+        this.elements = elements;
+        this.count = count;
+        this.frameClass = frameClass;
+        this.graph = graph;
+    }
+
+    /**
+     * Iterator framing the elements. It is {@link AutoCloseable}, so callers abandoning it early can release
+     * the backend iterator.
+     */
+    @Override
+    public Iterator<F> iterator() {
+        return new FramingIterator(elements.get());
+    }
+
+    @Override
+    public F get(int index) {
+        if (index < 0) {
+            throw new IndexOutOfBoundsException("Index: " + index);
+        }
+        Iterator<E> it = elements.get();
+        try {
+            for (int i = 0; i < index && it.hasNext(); i++) {
+                it.next();
+            }
+            if (!it.hasNext()) {
+                throw new IndexOutOfBoundsException("Index: " + index);
+            }
+            return graph.frame(it.next(), frameClass);
+        } finally {
+            FrameHelper.close(it);
+        }
+    }
+
+    @Override
+    public int size() {
+        return (int) Math.min(count.getAsLong(), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        Iterator<E> it = elements.get();
+        try {
+            return !it.hasNext();
+        } finally {
+            FrameHelper.close(it);
+        }
+    }
+
+    @Override
+    public ListIterator<F> listIterator(int index) {
+        // bidirectional iteration needs the materialized list
+        return Collections.unmodifiableList(new ArrayList<>(this)).listIterator(index);
+    }
+
+    @Override
+    public Spliterator<F> spliterator() {
+        return Spliterators.spliteratorUnknownSize(iterator(), Spliterator.ORDERED);
+    }
+
+    /**
+     * Sequential stream framing the elements. Closing the stream closes the backend iterator.
+     */
+    @Override
+    public Stream<F> stream() {
+        return FrameHelper.stream(iterator());
+    }
+
+    private final class FramingIterator implements Iterator<F>, AutoCloseable {
+
+        private final Iterator<E> it;
+
+        private FramingIterator(Iterator<E> it) {
+            this.it = it;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (it.hasNext()) {
+                return true;
+            }
+            close();
+            return false;
+        }
+
+        @Override
+        public F next() {
+            return graph.frame(it.next(), frameClass);
+        }
+
+        @Override
+        public void close() {
+            FrameHelper.close(it);
+        }
+    }
+}
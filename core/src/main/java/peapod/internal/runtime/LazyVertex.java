@@ -0,0 +1,174 @@
+/*
+ * Copyright 2015 Bay of Many
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * This project is derived from code in the TinkerPop project under the following license:
+ *
+ *    TinkerPop3
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ */
+
+package peapod.internal.runtime;
+
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+import org.apache.tinkerpop.gremlin.structure.util.ElementHelper;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * A reference to a vertex by its id, framed by the generated {@link peapod.annotations.Lazy} reference getters of
+ * single linked vertices. The id and equality are answered by the reference. The label is only known up front when
+ * the framed class has a single label. Otherwise it is read from the vertex, which is looked up in the graph on the
+ * first access to the label, a property or a relationship.
+ */
+public final class LazyVertex implements Vertex {
+
+    private final Graph graph;
+    private final Object id;
+    private final String label;
+
+    private Vertex vertex;
+
+    /**
+     * @param label the label of the vertex, or {@code null} to read it from the vertex
+     */
+    public LazyVertex(Graph graph, Object id, String label) {
+        this.graph = graph;
+        this.id = id;
+        this.label = label;
+    }
+
+    /**
+     * @return the referenced vertex, looked up in the graph on the first call
+     * @throws IllegalStateException when the vertex was removed
+     */
+    public Vertex resolve() {
+        if (vertex == null) {
+            Iterator<Vertex> it = graph.vertices(id);
+            if (!it.hasNext()) {
+                throw new IllegalStateException("Vertex with id " + id + " does not exist");
+            }
+            vertex = it.next();
+        }
+        return vertex;
+    }
+
+    public boolean isResolved() {
+        return vertex != null;
+    }
+
+    /**
+     * @return the vertex itself, or the referenced vertex when the vertex is a lazy reference
+     */
+    public static Vertex unwrap(Vertex vertex) {
+        return vertex instanceof LazyVertex ? ((LazyVertex) vertex).resolve() : vertex;
+    }
+
+    @Override
+    public Object id() {
+        return id;
+    }
+
+    @Override
+    public String label() {
+        return label != null ? label : resolve().label();
+    }
+
+    @Override
+    public Graph graph() {
+        return graph;
+    }
+
+    @Override
+    public Set<String> keys() {
+        return resolve().keys();
+    }
+
+    @Override
+    public <V> VertexProperty<V> property(String key) {
+        return resolve().property(key);
+    }
+
+    @Override
+    public <V> VertexProperty<V> property(String key, V value) {
+        return resolve().property(key, value);
+    }
+
+    @Override
+    public <V> VertexProperty<V> property(String key, V value, Object... keyValues) {
+        return resolve().property(key, value, keyValues);
+    }
+
+    @Override
+    public <V> VertexProperty<V> property(VertexProperty.Cardinality cardinality, String key, V value, Object... keyValues) {
+        return resolve().property(cardinality, key, value, keyValues);
+    }
+
+    @Override
+    public <V> V value(String key) {
+        return resolve().value(key);
+    }
+
+    @Override
+    public <V> Iterator<VertexProperty<V>> properties(String... propertyKeys) {
+        return resolve().properties(propertyKeys);
+    }
+
+    @Override
+    public <V> Iterator<V> values(String... propertyKeys) {
+        return resolve().values(propertyKeys);
+    }
+
+    @Override
+    public Edge addEdge(String label, Vertex inVertex, Object... keyValues) {
+        return resolve().addEdge(label, unwrap(inVertex), keyValues);
+    }
+
+    @Override
+    public Iterator<Edge> edges(Direction direction, String... edgeLabels) {
+        return resolve().edges(direction, edgeLabels);
+    }
+
+    @Override
+    public Iterator<Vertex> vertices(Direction direction, String... edgeLabels) {
+        return resolve().vertices(direction, edgeLabels);
+    }
+
+    @Override
+    public void remove() {
+        resolve().remove();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return ElementHelper.areEqual(this, other);
+    }
+
+    @Override
+    public int hashCode() {
+        return ElementHelper.hashCode(this);
+    }
+
+    @Override
+    public String toString() {
+        return StringFactory.vertexString(this);
+    }
+
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2015 Bay of Many
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * This project is derived from code in the TinkerPop project under the following license:
+ *
+ *    TinkerPop3
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ */
+
+package peapod.internal.runtime;
+
+import org.apache.tinkerpop.gremlin.structure.Element;
+
+/**
+ * Implemented by the generated vertex and edge classes, so a single frame instance can be re-pointed at successive
+ * elements of a scan. Rebinding clears the prefetched and cached property values of the previous element, and
+ * flushes its pending {@link peapod.annotations.WriteBehind} changes.
+ *
+ * @see peapod.FramedGraphTraversal#forEachCursor(java.util.function.Consumer)
+ */
+public interface Rebindable {
+
+    /**
+     * @param element the vertex or edge to frame from now on
+     */
+    void rebind(Element element);
+
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2015 Bay of Many
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * This project is derived from code in the TinkerPop project under the following license:
+ *
+ *    TinkerPop3
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ */
+
+package peapod.internal.runtime;
+
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Transaction;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the transactions of the current thread on a graph. A single transaction listener per graph and thread starts
+ * a new, globally unique epoch whenever the thread commits or rolls back, so framed graphs discard their thread-bound
+ * state lazily by comparing epochs instead of registering listeners of their own. The listener only references the
+ * clock, and the clocks of a thread are weakly keyed by their graph. Not thread-safe, every thread has its own clock.
+ * The clock also holds the {@link peapod.annotations.WriteBehind} frames with pending changes, which are discarded
+ * when the transaction ends without flushing them.
+ */
+public final class TransactionClock {
+
+    private static final AtomicLong epochs = new AtomicLong();
+
+    private static final ThreadLocal<Map<Graph, TransactionClock>> clocks = ThreadLocal.withInitial(WeakHashMap::new);
+
+    private long epoch = epochs.incrementAndGet();
+
+    private final List<DirtyTracking> dirty = new ArrayList<>();
+
+    private TransactionClock() {
+    }
+
+    /**
+     * @return the clock of the current thread for the graph, registering its transaction listener on first use
+     */
+    public static TransactionClock of(Graph graph) {
+        return clocks.get().computeIfAbsent(graph, g -> {
+            TransactionClock clock = new TransactionClock();
+            if (g.features().graph().supportsTransactions()) {
+                g.tx().addTransactionListener(clock::ended);
+            }
+            return clock;
+        });
+    }
+
+    /**
+     * @return the epoch of the current transaction, always positive
+     */
+    public long epoch() {
+        return epoch;
+    }
+
+    /**
+     * @return the write-behind frames with pending changes of the current thread on the graph
+     */
+    public List<DirtyTracking> dirty() {
+        return dirty;
+    }
+
+    private void ended(Transaction.Status status) {
+        // the listener runs after the transaction ended, changes not flushed in time must not leak into the next one
+        dirty.forEach(DirtyTracking::discard);
+        dirty.clear();
+        epoch = epochs.incrementAndGet();
+    }
+
+}
@@ -21,13 +21,25 @@
 
 package peapod;
 
+import org.apache.tinkerpop.gremlin.process.traversal.Order;
 import org.apache.tinkerpop.gremlin.structure.T;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.junit.Before;
 import org.junit.Test;
+import peapod.internal.runtime.FramerRegistry;
 import peapod.model.Person;
 
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 
 import static org.hamcrest.CoreMatchers.equalTo;
@@ -79,6 +91,28 @@ public class FramedGraphTest extends GraphTest {
         assertEquals("alice", p.getName());
     }
 
+    @Test
+    public void testVBatch() throws Exception {
+        Vertex removed = g.addVertex(T.label, "Person", "name", "diane");
+        Object missing = removed.id();
+        removed.remove();
+
+        Person bob = graph.V(Person.class).has("name", "bob").next();
+        List<Person> result = graph.v(Arrays.asList(bob.id(), missing, alice.id(), bob), Person.class);
+        assertEquals(4, result.size());
+        assertEquals("bob", result.get(0).getName());
+        assertNull(result.get(1));
+        assertEquals("alice", result.get(2).getName());
+        assertEquals(bob, result.get(3));
+
+        Map<Object, Person> map = graph.vMap(Arrays.asList(alice.id(), missing, bob.id()), Person.class);
+        assertEquals(Arrays.asList(alice.id(), bob.id()), new ArrayList<>(map.keySet()));
+        assertEquals("alice", map.get(alice.id()).getName());
+        assertFalse(map.containsKey(missing));
+
+        assertTrue(graph.v(Collections.emptyList(), Person.class).isEmpty());
+    }
+
     @Test
     public void testFindAll() throws Exception {
         List<Person> result = graph.V(Person.class).toList();
@@ -93,6 +127,132 @@ public class FramedGraphTest extends GraphTest {
         assertEquals("alice", result.get(0).getName());
     }
 
+    @Test
+    public void testPrefetch() throws Exception {
+        List<Person> result = graph.V(Person.class).has("name", "alice").prefetch("name", "age").toList();
+        assertEquals(1, result.size());
+        Person person = result.get(0);
+
+        // answered from the prefetched values
+        alice.property("name", "diane");
+        assertEquals("alice", person.getName());
+
+        person.setName("eve");
+        assertEquals("eve", person.getName());
+
+        assertThat(graph.V(Person.class).prefetch("name").stream().map(Person::getName).collect(Collectors.toList()),
+                containsInAnyOrder("eve", "bob", "charlie"));
+        assertEquals(3, graph.V(Person.class).prefetch("name").count().next().longValue());
+    }
+
+    @Test
+    public void testPrefetchRelationships() throws Exception {
+        List<Person> persons = graph.V(Person.class).toList();
+        graph.prefetch(persons, "friend");
+        assertNotNull(graph.adjacencyCache());
+
+        // answered from the adjacency cache
+        Person p = graph.v(alice.id(), Person.class);
+        Vertex diane = g.addVertex(T.label, "Person", "name", "diane");
+        alice.addEdge("friend", diane);
+        assertThat(p.getFriends().stream().map(Person::getName).collect(Collectors.toList()), containsInAnyOrder("bob", "charlie"));
+
+        // adders discard the cached edges
+        p.addFriend(graph.v(diane.id(), Person.class));
+        assertEquals(4, p.getFriends().size());
+
+        graph.prefetch(persons, "friend");
+        alice.addEdge("friend", diane);
+        assertEquals(4, p.getFriends().size());
+        graph.clearAdjacencyCache();
+        assertEquals(5, p.getFriends().size());
+
+        graph.prefetch(Collections.emptyList(), "friend");
+    }
+
+    @Test
+    public void testStream() throws Exception {
+        List<String> names = graph.V(Person.class).stream().map(Person::getName).collect(Collectors.toList());
+        assertThat(names, containsInAnyOrder("alice", "bob", "charlie"));
+
+        assertEquals(1, graph.V(Person.class).stream().limit(1).count());
+        assertEquals(3, graph.V(Person.class).dedup().toStream().count());
+    }
+
+    @Test
+    public void testFill() throws Exception {
+        Set<String> names = graph.V(Person.class).<String>values("name").fill(new TreeSet<>());
+        assertThat(names, containsInAnyOrder("alice", "bob", "charlie"));
+
+        assertThat(graph.V(Person.class).<String>values("name").toSet(), containsInAnyOrder("alice", "bob", "charlie"));
+    }
+
+    @Test
+    public void testIterateBatches() throws Exception {
+        List<List<Person>> batches = new ArrayList<>();
+        graph.V(Person.class).iterate(2, batches::add);
+        assertEquals(2, batches.size());
+        assertEquals(2, batches.get(0).size());
+        assertEquals(1, batches.get(1).size());
+    }
+
+    @Test
+    public void testOrderAndRange() throws Exception {
+        List<String> names = graph.V(Person.class).order().by("name", Order.decr).range(1, 3).<String>values("name").toList();
+        assertEquals(Arrays.asList("bob", "alice"), names);
+        assertEquals(1, graph.V(Person.class).order().by("name").limit(1).toList().size());
+    }
+
+    @Test
+    public void testPage() throws Exception {
+        FramedGraphTraversal.Page<Person> page = graph.V(Person.class).order().by("name").page(2, null);
+        assertEquals(Arrays.asList("alice", "bob"), page.elements().stream().map(Person::getName).collect(Collectors.toList()));
+        assertTrue(page.hasMore());
+        assertEquals(new FramedGraphTraversal.Continuation("bob", page.elements().get(1).id()), page.continuation());
+
+        page = graph.V(Person.class).order().by("name").page(2, page.continuation());
+        assertEquals(Collections.singletonList("charlie"), page.elements().stream().map(Person::getName).collect(Collectors.toList()));
+        assertFalse(page.hasMore());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testPageNotOrdered() throws Exception {
+        graph.V(Person.class).page(2, null);
+    }
+
+    @Test
+    public void testPageTies() throws Exception {
+        g.addVertex(T.label, "Person", "name", "bob");
+        g.addVertex(T.label, "Person", "name", "bob");
+
+        List<Object> ids = new ArrayList<>();
+        FramedGraphTraversal.Page<Person> page = graph.V(Person.class).order().by("name").page(2, null);
+        page.elements().forEach(p -> ids.add(p.id()));
+        while (page.hasMore()) {
+            page = graph.V(Person.class).order().by("name").page(2, page.continuation());
+            page.elements().forEach(p -> ids.add(p.id()));
+        }
+        assertEquals(5, ids.size());
+        assertEquals(5, new HashSet<>(ids).size());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testPageValues() throws Exception {
+        graph.V(Person.class).values("name").order().by("name").page(2, null);
+    }
+
+    @Test
+    public void testForEachCursor() throws Exception {
+        List<String> names = new ArrayList<>();
+        Set<Person> cursors = Collections.newSetFromMap(new IdentityHashMap<>());
+        graph.V(Person.class).prefetch("name").forEachCursor(person -> {
+            cursors.add(person);
+            names.add(person.getName());
+        });
+        assertThat(names, containsInAnyOrder("alice", "bob", "charlie"));
+        assertEquals(1, cursors.size());
+    }
+
     @Test
     public void testIn() throws Exception {
         List<Person> result = graph.V(Person.class).has("name", "bob").in("friend", Person.class).toList();
@@ -102,6 +262,33 @@ public class FramedGraphTest extends GraphTest {
         assertThat(graph.v(alice.id(), Person.class).getFriends(), hasItem(hasProperty("name", equalTo("bob"))));
     }
 
+    @Test
+    public void testSharedRegistry() throws Exception {
+        FramerRegistry registry = FramerRegistry.forPackages(Person.class.getPackage());
+        assertSame(registry, FramerRegistry.forPackages(Person.class.getPackage()));
+
+        FramedGraph other = new FramedGraph(g, registry);
+        Person p = other.v(alice.id(), Person.class);
+        assertEquals("alice", p.getName());
+        assertEquals(2, p.getFriends().size());
+    }
+
+    @Test
+    public void testRegistryPerClassLoader() throws Exception {
+        FramerRegistry registry = FramerRegistry.forPackages(Person.class.getPackage());
+        Thread thread = Thread.currentThread();
+        ClassLoader contextClassLoader = thread.getContextClassLoader();
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[0], contextClassLoader)) {
+            thread.setContextClassLoader(classLoader);
+            FramerRegistry other = FramerRegistry.forPackages(Person.class.getPackage());
+            assertNotSame(registry, other);
+            assertSame(other, FramerRegistry.forPackages(Person.class.getPackage()));
+        } finally {
+            thread.setContextClassLoader(contextClassLoader);
+        }
+        assertSame(registry, FramerRegistry.forPackages(Person.class.getPackage()));
+    }
+
     @Test
     public void testConfiguration() throws Exception {
         assertNotNull(graph.configuration());
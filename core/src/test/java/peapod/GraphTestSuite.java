@@ -45,7 +45,11 @@ package peapod;
 
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
+import peapod.bulk.FramedBulkLoaderTest;
+import peapod.cached.CachedPropertyTest;
 import peapod.classes.AnnotatedClassTest;
+import peapod.identitymap.IdentityMapTest;
+import peapod.lazy.LazyTest;
 import peapod.inheritance.InheritanceTest;
 import peapod.linkededge.LinkedEdgeTest;
 import peapod.linkedvertex.LinkedVertexTest;
@@ -53,25 +57,37 @@ import peapod.manytomany.ManyToManyTest;
 import peapod.manytomanyedge.ManyToManyEdgeTest;
 import peapod.manytoone.ManyToOneTest;
 import peapod.multiproperties.MultiPropertiesTest;
+import peapod.orderby.OrderByTest;
 import peapod.property.DatePropertyTest;
 import peapod.property.PropertyTest;
+import peapod.stream.StreamTest;
+import peapod.traversal.TypedTraversalTest;
 import peapod.vertexproperty.VertexPropertyTest;
+import peapod.writebehind.WriteBehindTest;
 
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
         AnnotatedClassTest.class,
+        CachedPropertyTest.class,
         DatePropertyTest.class,
         InheritanceTest.class,
+        FramedBulkLoaderTest.class,
         FramedElementTest.class,
         FramedGraphTest.class,
+        IdentityMapTest.class,
+        LazyTest.class,
         LinkedEdgeTest.class,
         LinkedVertexTest.class,
         ManyToManyTest.class,
         ManyToManyEdgeTest.class,
         ManyToOneTest.class,
         MultiPropertiesTest.class,
+        OrderByTest.class,
         PropertyTest.class,
-        VertexPropertyTest.class
+        StreamTest.class,
+        TypedTraversalTest.class,
+        VertexPropertyTest.class,
+        WriteBehindTest.class
 })
 public class GraphTestSuite {
 
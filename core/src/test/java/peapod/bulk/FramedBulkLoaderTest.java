@@ -0,0 +1,117 @@
+/*
+ * Copyright 2015 Bay of Many
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * This project is derived from code in the TinkerPop project under the following license:
+ *
+ *    TinkerPop3
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ */
+
+package peapod.bulk;
+
+import org.junit.Before;
+import org.junit.Test;
+import peapod.FramedBulkLoader;
+import peapod.FramedGraph;
+import peapod.GraphTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.junit.Assert.*;
+import static peapod.FramedBulkLoader.edge;
+import static peapod.FramedBulkLoader.vertex;
+
+public class FramedBulkLoaderTest extends GraphTest {
+
+    private FramedGraph graph;
+
+    @Before
+    public void init() {
+        graph = new FramedGraph(g, Person.class.getPackage());
+    }
+
+    @Test
+    public void testLoad() {
+        List<FramedBulkLoader.Statistics> commits = new ArrayList<>();
+        FramedBulkLoader.Statistics statistics;
+        try (FramedBulkLoader loader = graph.bulkLoader().batchSize(3).onCommit(commits::add)) {
+            loader.load(IntStream.range(0, 5).mapToObj(i -> vertex(i, Person.class, "name", "person" + i)));
+            statistics = loader.load(Stream.of(
+                    edge("friend", 0, 1),
+                    edge("friend", 0, 4),
+                    edge(Knows.class, 3, 0, "since", 2010)));
+        }
+
+        assertEquals(5, statistics.vertices());
+        assertEquals(3, statistics.edges());
+        assertEquals(3, commits.size());
+        assertTrue(statistics.throughput() > 0);
+
+        assertEquals(5, graph.V(Person.class).toList().size());
+        Person first = graph.V(Person.class).has("name", "person0").next();
+        assertThat(first.getFriends().stream().map(Person::getName).collect(Collectors.toList()), containsInAnyOrder("person1", "person4"));
+        Person fourth = graph.V(Person.class).has("name", "person3").next();
+        assertEquals(1, fourth.getKnows().size());
+        assertEquals(2010, fourth.getKnows().get(0).getSince());
+        assertEquals(first, fourth.getKnows().get(0).getPerson());
+    }
+
+    @Test
+    public void testParallelLoad() {
+        Stream<FramedBulkLoader.Spec> persons = IntStream.range(0, 100).mapToObj(i -> vertex(i, Person.class, "name", "person" + i));
+        Stream<FramedBulkLoader.Spec> friends = IntStream.range(0, 100).mapToObj(i -> edge("friend", i, (i + 1) % 100));
+        FramedBulkLoader.Statistics statistics = graph.parallelLoader(4).batchSize(7).load(Stream.concat(persons, friends));
+
+        assertEquals(100, statistics.vertices());
+        assertEquals(100, statistics.edges());
+        assertEquals(100, graph.V(Person.class).toList().size());
+        for (Person person : graph.V(Person.class).toList()) {
+            int i = Integer.parseInt(person.getName().substring("person".length()));
+            assertEquals(1, person.getFriends().size());
+            assertEquals("person" + (i + 1) % 100, person.getFriends().get(0).getName());
+        }
+    }
+
+    @Test
+    public void testExistingVertex() {
+        FramedBulkLoader loader = graph.bulkLoader();
+        Object id = loader.addVertex("alice", Person.class, "name", "alice");
+        assertEquals(id, loader.id("alice"));
+        loader.commit();
+
+        Person alice = graph.v(id);
+        loader.addVertex("bob", Person.class, "name", "bob");
+        loader.addEdge("friend", alice, "bob");
+        loader.close();
+
+        assertEquals("bob", alice.getFriends().get(0).getName());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownKey() {
+        graph.bulkLoader().addEdge("friend", "alice", "bob");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEdgeClassAsVertex() {
+        graph.bulkLoader().addVertex("knows", Knows.class);
+    }
+
+}
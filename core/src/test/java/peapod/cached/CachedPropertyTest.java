@@ -0,0 +1,91 @@
+/*
+ * Copyright 2015 Bay of Many
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * This project is derived from code in the TinkerPop project under the following license:
+ *
+ *    TinkerPop3
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ */
+
+package peapod.cached;
+
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.Before;
+import org.junit.Test;
+import peapod.FramedGraph;
+import peapod.GraphTest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+
+public class CachedPropertyTest extends GraphTest {
+
+    private FramedGraph graph;
+    private Vertex vertex;
+    private Person alice;
+
+    @Before
+    public void init() {
+        vertex = g.addVertex(T.label, "Person", "name", "alice", "age", 30, "nickname", "ally");
+        graph = new FramedGraph(g, Person.class.getPackage());
+        alice = graph.v(vertex.id());
+    }
+
+    @Test
+    public void testCached() {
+        assertEquals("alice", alice.getName());
+        assertEquals(30, alice.getAge());
+
+        vertex.property("name", "bob");
+        vertex.property("age", 40);
+        assertEquals("alice", alice.getName());
+        assertEquals(30, alice.getAge());
+    }
+
+    @Test
+    public void testNotCached() {
+        assertEquals("ally", alice.getNickname());
+        vertex.property("nickname", "lisa");
+        assertEquals("lisa", alice.getNickname());
+    }
+
+    @Test
+    public void testSetterInvalidates() {
+        assertEquals("alice", alice.getName());
+        alice.setName("bob");
+        assertEquals("bob", alice.getName());
+        alice.setName(null);
+        assertEquals(null, alice.getName());
+
+        assertEquals(30, alice.getAge());
+        alice.setAge(31);
+        assertEquals(31, alice.getAge());
+    }
+
+    @Test
+    public void testDiscardedOnCommit() {
+        assumeTrue(g.features().graph().supportsTransactions());
+
+        assertEquals("alice", alice.getName());
+        vertex.property("name", "bob");
+        graph.tx().commit();
+        assertEquals("bob", alice.getName());
+
+        g.traversal().V().drop().iterate();
+        graph.tx().commit();
+    }
+
+}
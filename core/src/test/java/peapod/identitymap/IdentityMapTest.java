@@ -0,0 +1,101 @@
+/*
+ * Copyright 2015 Bay of Many
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * This project is derived from code in the TinkerPop project under the following license:
+ *
+ *    TinkerPop3
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ */
+
+package peapod.identitymap;
+
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.Before;
+import org.junit.Test;
+import peapod.FramedGraph;
+import peapod.GraphTest;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+public class IdentityMapTest extends GraphTest {
+
+    private Vertex alice;
+    private Vertex bob;
+
+    @Before
+    public void init() {
+        alice = g.addVertex(T.label, "Person", "name", "alice");
+        bob = g.addVertex(T.label, "Person", "name", "bob");
+        alice.addEdge("friend", bob);
+        bob.addEdge("friend", alice);
+    }
+
+    @Test
+    public void testWithoutIdentityMap() {
+        FramedGraph graph = new FramedGraph(g, Person.class.getPackage());
+        Person p1 = graph.v(alice.id(), Person.class);
+        Person p2 = graph.v(alice.id(), Person.class);
+        assertEquals(p1, p2);
+        assertNotSame(p1, p2);
+    }
+
+    @Test
+    public void testSameInstance() {
+        FramedGraph graph = new FramedGraph(g, Person.class.getPackage()).useIdentityMap(100);
+        Person p = graph.v(alice.id(), Person.class);
+        assertSame(p, graph.v(alice.id(), Person.class));
+        assertSame(p, graph.v(bob.id(), Person.class).getFriends().get(0));
+        assertSame(p, graph.V(Person.class).has("name", "alice").next());
+    }
+
+    @Test
+    public void testAddVertex() {
+        FramedGraph graph = new FramedGraph(g, Person.class.getPackage()).useIdentityMap(100);
+        Person p = graph.addVertex(Person.class);
+        assertSame(p, graph.v(p.id(), Person.class));
+    }
+
+    @Test
+    public void testClear() {
+        FramedGraph graph = new FramedGraph(g, Person.class.getPackage()).useIdentityMap(100);
+        Person p = graph.v(alice.id(), Person.class);
+        graph.clearIdentityMap();
+        assertNotSame(p, graph.v(alice.id(), Person.class));
+    }
+
+    @Test
+    public void testMaxSize() {
+        FramedGraph graph = new FramedGraph(g, Person.class.getPackage()).useIdentityMap(1);
+        Person p = graph.v(alice.id(), Person.class);
+        graph.v(bob.id(), Person.class);
+        assertNotSame(p, graph.v(alice.id(), Person.class));
+    }
+
+    @Test
+    public void testClearedOnCommit() {
+        assumeTrue(g.features().graph().supportsTransactions());
+
+        FramedGraph graph = new FramedGraph(g, Person.class.getPackage()).useIdentityMap(100);
+        Person p = graph.v(alice.id(), Person.class);
+        graph.tx().commit();
+        assertNotSame(p, graph.v(alice.id(), Person.class));
+
+        g.traversal().V().drop().iterate();
+        graph.tx().commit();
+    }
+
+}
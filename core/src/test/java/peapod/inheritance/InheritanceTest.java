@@ -94,6 +94,7 @@ public class InheritanceTest extends GraphTest {
         RelatedTo relatedTo = gom.getRelatedTo().get(0);
         assertEquals(gom, relatedTo.getMe());
         assertEquals(dog, relatedTo.getOther());
+        assertTrue(relatedTo.getOther() instanceof Dog);
         assertEquals("same color", relatedTo.getRelation());
     }
 
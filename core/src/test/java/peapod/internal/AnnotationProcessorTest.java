@@ -28,6 +28,7 @@ import org.junit.Test;
 
 import javax.tools.JavaFileObject;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import static com.google.common.truth.Truth.assert_;
@@ -45,12 +46,13 @@ public class AnnotationProcessorTest {
         input.add(JavaFileObjects.forResource("peapod/internal/classes/Knows.java"));
         JavaFileObject framedVertex = JavaFileObjects.forResource("peapod/internal/classes/Person$Impl.java");
         JavaFileObject framedEdge = JavaFileObjects.forResource("peapod/internal/classes/Knows$Impl.java");
+        JavaFileObject framerIndex = JavaFileObjects.forResource("peapod/internal/classes/Peapod$FramerIndex.java");
 
         assert_().about(javaSources())
                 .that(input)
                 .processedWith(new AnnotationProcessor())
                 .compilesWithoutError()
-                .and().generatesSources(framedVertex, framedEdge);
+                .and().generatesSources(framedVertex, framedEdge, framerIndex);
     }
 
     @Test
@@ -70,4 +72,28 @@ public class AnnotationProcessorTest {
                 .and().generatesSources(framedVertex, framedSubVertex, framedEdge);
     }
 
+    @Test
+    public void testHasMethodOfProperty() {
+        JavaFileObject input = JavaFileObjects.forResource("peapod/internal/properties/Person.java");
+        JavaFileObject framedVertex = JavaFileObjects.forResource("peapod/internal/properties/Person$Impl.java");
+
+        assert_().about(javaSources())
+                .that(Collections.singletonList(input))
+                .processedWith(new AnnotationProcessor())
+                .compilesWithoutError()
+                .and().generatesSources(framedVertex);
+    }
+
+    @Test
+    public void testExistingTraversalClass() {
+        List<JavaFileObject> input = new ArrayList<>();
+        input.add(JavaFileObjects.forResource("peapod/internal/traversal/Person.java"));
+        input.add(JavaFileObjects.forResource("peapod/internal/traversal/PersonTraversal.java"));
+
+        assert_().about(javaSources())
+                .that(input)
+                .processedWith(new AnnotationProcessor())
+                .compilesWithoutError();
+    }
+
 }
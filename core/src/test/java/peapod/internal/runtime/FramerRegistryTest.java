@@ -0,0 +1,70 @@
+/*
+ * Copyright 2015 Bay of Many
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * This project is derived from code in the TinkerPop project under the following license:
+ *
+ *    TinkerPop3
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ */
+
+package peapod.internal.runtime;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.Enumeration;
+
+import static org.junit.Assert.assertEquals;
+
+public class FramerRegistryTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testPartialIndex() throws Exception {
+        // only the index of a sub package is registered, e.g. after an incremental compile
+        File services = folder.newFile();
+        Files.write(services.toPath(), "peapod.lazy.Peapod$FramerIndex\n".getBytes(StandardCharsets.UTF_8));
+        ClassLoader classLoader = new ClassLoader(getClass().getClassLoader()) {
+            @Override
+            public Enumeration<URL> getResources(String name) throws IOException {
+                if (name.equals("META-INF/services/" + FramerIndex.class.getName())) {
+                    return Collections.enumeration(Collections.singletonList(services.toURI().toURL()));
+                }
+                return super.getResources(name);
+            }
+        };
+
+        Thread thread = Thread.currentThread();
+        ClassLoader contextClassLoader = thread.getContextClassLoader();
+        thread.setContextClassLoader(classLoader);
+        try {
+            FramerRegistry registry = FramerRegistry.load(Package.getPackage("peapod"));
+            assertEquals(peapod.lazy.Person.class, registry.get(peapod.lazy.Person.class).frameClass());
+            assertEquals(peapod.model.Person.class, registry.get(peapod.model.Person.class).frameClass());
+        } finally {
+            thread.setContextClassLoader(contextClassLoader);
+        }
+    }
+
+}
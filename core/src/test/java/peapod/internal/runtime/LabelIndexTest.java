@@ -0,0 +1,60 @@
+/*
+ * Copyright 2015 Bay of Many
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * This project is derived from code in the TinkerPop project under the following license:
+ *
+ *    TinkerPop3
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ */
+
+package peapod.internal.runtime;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LabelIndexTest {
+
+    @Test
+    public void testIndexOf() {
+        LabelIndex index = new LabelIndex(Arrays.asList("Person", "knows", "Person", "location"));
+        assertEquals(3, index.size());
+
+        Set<Integer> indices = new HashSet<>();
+        for (String label : Arrays.asList("Person", "knows", "location")) {
+            int i = index.indexOf(new String(label));
+            assertTrue(i >= 0 && i < 3);
+            assertEquals(i, index.indexOf(label));
+            indices.add(i);
+        }
+        assertEquals(3, indices.size());
+
+        assertEquals(-1, index.indexOf("Programmer"));
+    }
+
+    @Test
+    public void testEmpty() {
+        LabelIndex index = new LabelIndex(Collections.emptyList());
+        assertEquals(0, index.size());
+        assertEquals(-1, index.indexOf("Person"));
+    }
+
+}
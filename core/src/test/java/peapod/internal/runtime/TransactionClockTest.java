@@ -0,0 +1,120 @@
+/*
+ * Copyright 2015 Bay of Many
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * This project is derived from code in the TinkerPop project under the following license:
+ *
+ *    TinkerPop3
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ */
+
+package peapod.internal.runtime;
+
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Transaction;
+import org.apache.tinkerpop.gremlin.structure.util.AbstractThreadLocalTransaction;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.*;
+
+public class TransactionClockTest {
+
+    @Test
+    public void testOneClockPerGraph() {
+        TinkerGraph graph = TinkerGraph.open();
+        TransactionClock clock = TransactionClock.of(graph);
+        assertSame(clock, TransactionClock.of(graph));
+        assertTrue(clock.epoch() > 0);
+        assertTrue(clock.dirty().isEmpty());
+
+        TransactionClock other = TransactionClock.of(TinkerGraph.open());
+        assertNotSame(clock, other);
+        assertNotEquals(clock.epoch(), other.epoch());
+    }
+
+    @Test
+    public void testDirtyDiscardedOnCommit() {
+        Transaction[] tx = new Transaction[1];
+        Graph graph = (Graph) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Graph.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "tx":
+                    return tx[0];
+                case "features":
+                    return new Graph.Features() {
+                    };
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+            }
+        });
+        tx[0] = new TestTransaction(graph);
+
+        TransactionClock clock = TransactionClock.of(graph);
+        long epoch = clock.epoch();
+        AtomicBoolean discarded = new AtomicBoolean();
+        clock.dirty().add(new DirtyTracking() {
+            @Override
+            public void flush() {
+                fail("Pending changes must not be flushed into another transaction");
+            }
+
+            @Override
+            public void discard() {
+                discarded.set(true);
+            }
+        });
+
+        graph.tx().commit();
+        assertTrue(discarded.get());
+        assertTrue(clock.dirty().isEmpty());
+        assertNotEquals(epoch, clock.epoch());
+    }
+
+    private static final class TestTransaction extends AbstractThreadLocalTransaction {
+
+        private boolean open;
+
+        TestTransaction(Graph graph) {
+            super(graph);
+        }
+
+        @Override
+        protected void doOpen() {
+            open = true;
+        }
+
+        @Override
+        protected void doCommit() {
+            open = false;
+        }
+
+        @Override
+        protected void doRollback() {
+            open = false;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return open;
+        }
+    }
+
+}
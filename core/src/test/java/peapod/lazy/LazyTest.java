@@ -0,0 +1,219 @@
+/*
+ * Copyright 2015 Bay of Many
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * This project is derived from code in the TinkerPop project under the following license:
+ *
+ *    TinkerPop3
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ */
+
+package peapod.lazy;
+
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.Before;
+import org.junit.Test;
+import peapod.FramedGraph;
+import peapod.GraphTest;
+import peapod.internal.runtime.LazyFramedList;
+import peapod.internal.runtime.LazyVertex;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.junit.Assert.*;
+
+public class LazyTest extends GraphTest {
+
+    private Person alice;
+    private Person bob;
+    private Person charlie;
+
+    @Before
+    public void init() {
+        Vertex alice = g.addVertex(T.label, "Person", "name", "alice");
+        Vertex bob = g.addVertex(T.label, "Person", "name", "bob");
+        Vertex charlie = g.addVertex(T.label, "Person", "name", "charlie");
+
+        alice.addEdge("friend", bob);
+        alice.addEdge("friend", charlie);
+        alice.addEdge("knows", bob);
+        alice.addEdge("bestFriend", charlie);
+
+        FramedGraph graph = new FramedGraph(g, Person.class.getPackage());
+        this.alice = graph.v(alice.id());
+        this.bob = graph.v(bob.id());
+        this.charlie = graph.v(charlie.id());
+    }
+
+    @Test
+    public void testGetList() {
+        List<Person> friends = alice.getFriends();
+        assertEquals(2, friends.size());
+        assertFalse(friends.isEmpty());
+        assertThat(friends, containsInAnyOrder(bob, charlie));
+        assertThat(friends.stream().map(Person::getName).collect(Collectors.toList()), containsInAnyOrder("bob", "charlie"));
+        assertTrue(friends.contains(friends.get(1)));
+
+        assertTrue(bob.getFriends().isEmpty());
+        assertEquals(0, bob.getFriends().size());
+    }
+
+    @Test
+    public void testGetListClosesIterators() throws Exception {
+        AtomicInteger opened = new AtomicInteger();
+        AtomicInteger closed = new AtomicInteger();
+        List<Person> people = new LazyFramedList<>(() -> new CloseableIterator<>(g.vertices(), opened, closed),
+                () -> 3, Person.class, new FramedGraph(g, Person.class.getPackage()));
+
+        assertFalse(people.isEmpty());
+        assertNotNull(people.get(0));
+        assertEquals(2, closed.get());
+
+        Iterator<Person> it = people.iterator();
+        it.next();
+        ((AutoCloseable) it).close();
+        assertEquals(3, closed.get());
+
+        try (Stream<Person> stream = people.stream()) {
+            assertTrue(stream.findFirst().isPresent());
+        }
+        assertEquals(4, closed.get());
+
+        assertEquals(3, people.stream().count());
+        assertEquals(opened.get(), closed.get());
+    }
+
+    private static class CloseableIterator<T> implements Iterator<T>, AutoCloseable {
+
+        private final Iterator<T> it;
+        private final AtomicInteger closed;
+
+        private CloseableIterator(Iterator<T> it, AtomicInteger opened, AtomicInteger closed) {
+            this.it = it;
+            this.closed = closed;
+            opened.incrementAndGet();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return it.hasNext();
+        }
+
+        @Override
+        public T next() {
+            return it.next();
+        }
+
+        @Override
+        public void close() {
+            closed.incrementAndGet();
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetOutOfBounds() {
+        alice.getFriends().get(2);
+    }
+
+    @Test
+    public void testGetCollectionIn() {
+        assertEquals(1, bob.getFriendOf().size());
+        assertThat(bob.getFriendOf(), containsInAnyOrder(alice));
+    }
+
+    @Test
+    public void testGetEdges() {
+        List<Knows> knows = alice.getKnows();
+        assertEquals(1, knows.size());
+        assertEquals(bob, knows.get(0).getPerson());
+    }
+
+    @Test
+    public void testView() {
+        List<Person> friends = bob.getFriends();
+        bob.addFriend(charlie);
+        assertEquals(1, friends.size());
+        assertThat(friends, containsInAnyOrder(charlie));
+    }
+
+    @Test
+    public void testPrefetched() {
+        FramedGraph graph = alice.graph();
+        graph.prefetch(Collections.singletonList(alice), "friend");
+        graph.prefetch(Collections.singletonList(alice), "knows");
+        alice.vertex().addEdge("friend", alice.vertex());
+        alice.vertex().addEdge("knows", charlie.vertex());
+        assertEquals(2, alice.getFriends().size());
+        assertThat(alice.getFriends(), containsInAnyOrder(bob, charlie));
+
+        // adding a friend only discards the cached friends
+        alice.addFriend(alice);
+        assertEquals(4, alice.getFriends().size());
+        assertEquals(1, alice.getKnows().size());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testUnmodifiable() {
+        alice.getFriends().add(bob);
+    }
+
+    @Test
+    public void testGetReference() {
+        Person bestFriend = alice.getBestFriend();
+        assertTrue(bestFriend.element() instanceof LazyVertex);
+        LazyVertex reference = (LazyVertex) bestFriend.element();
+        assertEquals(charlie.id(), bestFriend.id());
+        assertEquals(charlie, bestFriend);
+        assertEquals("Person", reference.label());
+        assertFalse(reference.isResolved());
+
+        assertEquals("charlie", bestFriend.getName());
+        assertTrue(reference.isResolved());
+        assertNull(bob.getBestFriend());
+    }
+
+    @Test
+    public void testSetReference() {
+        bob.setBestFriend(alice.getBestFriend());
+        assertEquals(charlie, bob.getBestFriend());
+
+        alice.getBestFriend().setBestFriend(bob);
+        assertEquals(bob, charlie.getBestFriend());
+        assertEquals("bob", charlie.getBestFriend().getName());
+    }
+
+    @Test
+    public void testGetEdgeReference() {
+        Person knower = alice.getKnows().get(0).getKnower();
+        assertTrue(knower.element() instanceof LazyVertex);
+        assertEquals(alice, knower);
+        assertFalse(((LazyVertex) knower.element()).isResolved());
+        assertEquals("alice", knower.getName());
+    }
+
+    @Test
+    public void testClassAnnotationNoReference() {
+        Person person = alice.getKnows().get(0).getPerson();
+        assertFalse(person.element() instanceof LazyVertex);
+        assertEquals(bob, person);
+    }
+
+}
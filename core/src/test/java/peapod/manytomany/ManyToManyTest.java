@@ -28,10 +28,12 @@ import org.junit.Test;
 import peapod.FramedGraph;
 import peapod.GraphTest;
 
+import java.util.Collections;
 import java.util.List;
 
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
 import static peapod.TinkerPopHelper.out;
 
 public class ManyToManyTest extends GraphTest {
@@ -59,6 +61,43 @@ public class ManyToManyTest extends GraphTest {
         assertEquals(1, alice.getFriends().size());
     }
 
+    @Test
+    public void testGetIds() {
+        assertEquals(Collections.singletonList(bob.id()), alice.getFriendIds());
+        assertTrue(bob.getFriendIds().isEmpty());
+
+        alice.addFriend(charlie);
+        assertThat(alice.getFriendIds(), containsInAnyOrder(bob.id(), charlie.id()));
+    }
+
+    @Test
+    public void testGetLongIds() {
+        assumeTrue(alice.id() instanceof Number);
+        assertArrayEquals(new long[]{((Number) alice.id()).longValue()}, bob.getFriendOfIds());
+        assertEquals(0, alice.getFriendOfIds().length);
+    }
+
+    @Test
+    public void testCount() {
+        assertEquals(1, alice.countFriends());
+        assertEquals(0, bob.countFriends());
+        assertEquals(1, bob.countFriendOf());
+
+        alice.addFriend(charlie);
+        assertEquals(2, alice.countFriends());
+    }
+
+    @Test
+    public void testHas() {
+        assertTrue(alice.hasFriends());
+        assertFalse(bob.hasFriends());
+
+        assertTrue(alice.hasFriend(bob));
+        assertFalse(alice.hasFriend(charlie));
+        assertFalse(bob.hasFriend(alice));
+        assertFalse(alice.hasFriend(null));
+    }
+
     @Test
     public void testAdd() {
         alice.addFriend(charlie);
@@ -22,6 +22,8 @@
 package peapod.manytomany;
 
 import peapod.FramedVertex;
+import peapod.annotations.Edge;
+import peapod.annotations.In;
 import peapod.annotations.Vertex;
 
 import java.util.List;
@@ -33,8 +35,24 @@ public abstract class Person implements FramedVertex<Person> {
 
     public abstract List<Person> getFriends();
 
+    public abstract List<Object> getFriendIds();
+
     public abstract void addFriend(Person person);
 
     public abstract void removeFriend(Person person);
 
+    public abstract long countFriends();
+
+    public abstract boolean hasFriends();
+
+    public abstract boolean hasFriend(Person person);
+
+    @In
+    @Edge("friend")
+    public abstract int countFriendOf();
+
+    @In
+    @Edge("friend")
+    public abstract long[] getFriendOfIds();
+
 }
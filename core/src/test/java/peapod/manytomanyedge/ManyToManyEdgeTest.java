@@ -28,6 +28,7 @@ import org.junit.Test;
 import peapod.FramedGraph;
 import peapod.GraphTest;
 
+import java.util.Collections;
 import java.util.List;
 
 import static org.hamcrest.Matchers.containsInAnyOrder;
@@ -67,6 +68,21 @@ public class ManyToManyEdgeTest extends GraphTest {
     }
 
 
+    @Test
+    public void testGetFilteredPrefetched() {
+        FramedGraph graph = alice.graph();
+        graph.prefetch(Collections.singletonList(alice), "friend");
+        assertEquals(bob, alice.getFriend(bob).getFriend());
+        assertNull(alice.getFriend(charlie));
+
+        // answered from the adjacency cache
+        alice.vertex().addEdge("friend", charlie.vertex());
+        assertNull(alice.getFriend(charlie));
+
+        graph.clearAdjacencyCache();
+        assertEquals(charlie, alice.getFriend(charlie).getFriend());
+    }
+
     @Test
     public void testAdd() {
         Friend friend = alice.addFriend(charlie);
@@ -43,6 +43,8 @@
 
 package peapod.manytoone;
 
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.T;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.junit.Before;
@@ -100,6 +102,18 @@ public class ManyToOneTest extends GraphTest {
         assertTrue(in(london.vertex(), "hometown").isEmpty());
     }
 
+    @Test
+    public void testSetSame() {
+        Edge edge = alice.vertex().edges(Direction.OUT, "hometown").next();
+        edge.property("since", 2010);
+
+        alice.setHometown(london);
+        Edge same = alice.vertex().edges(Direction.OUT, "hometown").next();
+        assertEquals(edge.id(), same.id());
+        assertEquals(2010, (int) same.value("since"));
+        assertEquals(1, out(alice.vertex(), "hometown").size());
+    }
+
     @Test
     public void testSetNull() {
         alice.setHometown(null);
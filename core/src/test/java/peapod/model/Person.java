@@ -31,7 +31,11 @@ public abstract class Person implements FramedVertex<Person> {
 
     public abstract String getName();
 
+    public abstract void setName(String name);
+
     public abstract List<Person> getFriends();
 
+    public abstract void addFriend(Person friend);
+
 
 }
@@ -51,6 +51,9 @@ import org.junit.Test;
 import peapod.FramedGraph;
 import peapod.GraphTest;
 
+import java.util.Arrays;
+import java.util.Collections;
+
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assume.assumeTrue;
@@ -87,5 +90,16 @@ public class MultiPropertiesTest extends GraphTest {
         assertThat(Lists.newArrayList(v.values("firstName")), containsInAnyOrder("Alice"));
     }
 
+    @Test
+    public void testRemoveNames() {
+        alice.addFirstName("Allison");
+        alice.addFirstName("Alicia");
+        alice.removeFirstNames(Arrays.asList("Alicia", "Allison", "Ally"));
+        assertThat(Lists.newArrayList(v.values("firstName")), containsInAnyOrder("Alice"));
+
+        alice.removeFirstNames(Collections.emptyList());
+        assertThat(alice.getFirstNames(), containsInAnyOrder("Alice"));
+    }
+
 
 }
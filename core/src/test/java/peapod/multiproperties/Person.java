@@ -45,6 +45,7 @@ package peapod.multiproperties;
 
 import peapod.annotations.Vertex;
 
+import java.util.Collection;
 import java.util.List;
 
 @Vertex
@@ -56,4 +57,6 @@ public abstract class Person {
 
     public abstract void removeFirstName(String name);
 
+    public abstract void removeFirstNames(Collection<String> names);
+
 }
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2015 Bay of Many
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * This project is derived from code in the TinkerPop project under the following license:
+ *
+ *    TinkerPop3
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ */
+
+package peapod.orderby;
+
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.Before;
+import org.junit.Test;
+import peapod.FramedGraph;
+import peapod.GraphTest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class OrderByTest extends GraphTest {
+
+    private Person alice;
+
+    @Before
+    public void init() {
+        Vertex alice = g.addVertex(T.label, "Person", "name", "alice");
+        Vertex bob = g.addVertex(T.label, "Person", "name", "bob");
+        Vertex charlie = g.addVertex(T.label, "Person", "name", "charlie");
+        Vertex diane = g.addVertex(T.label, "Person", "name", "diane");
+
+        alice.addEdge("friend", charlie);
+        alice.addEdge("friend", diane);
+        alice.addEdge("friend", bob);
+        alice.addEdge("knows", diane, "since", 2012);
+        alice.addEdge("knows", bob, "since", 2008);
+        alice.addEdge("knows", charlie, "since", 2010);
+
+        FramedGraph graph = new FramedGraph(g, Person.class.getPackage());
+        this.alice = graph.v(alice.id());
+    }
+
+    @Test
+    public void testOrderBy() {
+        assertEquals(Arrays.asList("bob", "charlie", "diane"), names(alice.getFriends()));
+        assertEquals(Arrays.asList(2008, 2010, 2012), alice.getKnows().stream().map(Knows::getSince).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testPage() {
+        assertEquals(Arrays.asList("diane", "charlie"), names(alice.getFriends(0, 2)));
+        assertEquals(Arrays.asList("bob"), names(alice.getFriends(2, 2)));
+        assertTrue(alice.getFriends(3, 2).isEmpty());
+        assertEquals(Arrays.asList("charlie", "bob"), names(alice.getFriends(1, -1)));
+    }
+
+    @Test
+    public void testPageWithoutOrder() {
+        assertEquals(2, alice.getKnows(0, 2).size());
+        assertEquals(1, alice.getKnows(2, 2).size());
+    }
+
+    @Test
+    public void testOrderedStream() {
+        assertEquals(Arrays.asList("bob", "charlie", "diane"), alice.getFriendStream().map(Person::getName).collect(Collectors.toList()));
+        assertEquals(Arrays.asList(2012, 2010, 2008), alice.getKnowsStream().map(Knows::getSince).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testOrderedSet() {
+        assertEquals(Arrays.asList("diane", "charlie"), names(new ArrayList<>(alice.getFriendSet(0, 2))));
+        assertEquals(Arrays.asList("bob"), names(new ArrayList<>(alice.getFriendSet(2, 2))));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidPage() {
+        alice.getFriends(-1, 2);
+    }
+
+    private static List<String> names(List<Person> persons) {
+        return persons.stream().map(Person::getName).collect(Collectors.toList());
+    }
+
+}
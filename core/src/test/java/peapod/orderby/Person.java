@@ -0,0 +1,61 @@
+/*
+ * Copyright 2015 Bay of Many
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * This project is derived from code in the TinkerPop project under the following license:
+ *
+ *    TinkerPop3
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ */
+
+package peapod.orderby;
+
+import peapod.FramedVertex;
+import peapod.annotations.Edge;
+import peapod.annotations.OrderBy;
+import peapod.annotations.Vertex;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+@Vertex
+public abstract class Person implements FramedVertex<Person> {
+
+    public abstract String getName();
+
+    @OrderBy("name")
+    public abstract List<Person> getFriends();
+
+    @OrderBy(value = "name", descending = true)
+    public abstract List<Person> getFriends(int offset, int limit);
+
+    @OrderBy("since")
+    public abstract List<Knows> getKnows();
+
+    public abstract List<Knows> getKnows(int offset, int limit);
+
+    @OrderBy("name")
+    @Edge("friend")
+    public abstract Stream<Person> getFriendStream();
+
+    @OrderBy(value = "name", descending = true)
+    @Edge("friend")
+    public abstract Set<Person> getFriendSet(int offset, int limit);
+
+    @OrderBy(value = "since", descending = true)
+    @Edge("knows")
+    public abstract Stream<Knows> getKnowsStream();
+
+}
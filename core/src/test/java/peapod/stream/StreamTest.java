@@ -0,0 +1,92 @@
+/*
+ * Copyright 2015 Bay of Many
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * This project is derived from code in the TinkerPop project under the following license:
+ *
+ *    TinkerPop3
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ */
+
+package peapod.stream;
+
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.Before;
+import org.junit.Test;
+import peapod.FramedGraph;
+import peapod.GraphTest;
+
+import java.util.Collections;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+public class StreamTest extends GraphTest {
+
+    private Person alice;
+    private Person bob;
+    private Person charlie;
+
+    @Before
+    public void init() {
+        Vertex alice = g.addVertex(T.label, "Person", "name", "alice");
+        Vertex bob = g.addVertex(T.label, "Person", "name", "bob");
+        Vertex charlie = g.addVertex(T.label, "Person", "name", "charlie");
+
+        alice.addEdge("friend", bob);
+        alice.addEdge("friend", charlie);
+        alice.addEdge("knows", bob);
+
+        FramedGraph graph = new FramedGraph(g, Person.class.getPackage());
+        this.alice = graph.v(alice.id());
+        this.bob = graph.v(bob.id());
+        this.charlie = graph.v(charlie.id());
+    }
+
+    @Test
+    public void testStreamVertices() {
+        assertThat(alice.getFriends().map(Person::getName).collect(Collectors.toList()), containsInAnyOrder("bob", "charlie"));
+        assertEquals(1, alice.getFriends().limit(1).count());
+        assertTrue(alice.getFriends().anyMatch(p -> p.equals(charlie)));
+        assertFalse(bob.getFriends().findFirst().isPresent());
+    }
+
+    @Test
+    public void testStreamPrefetched() {
+        alice.graph().prefetch(Collections.singletonList(alice), "friend");
+        alice.vertex().addEdge("friend", alice.vertex());
+        assertThat(alice.getFriends().map(Person::getName).collect(Collectors.toList()), containsInAnyOrder("bob", "charlie"));
+    }
+
+    @Test
+    public void testStreamEdges() {
+        try (Stream<Knows> knows = alice.getKnows()) {
+            assertEquals(bob, knows.findFirst().get().getPerson());
+        }
+    }
+
+    @Test
+    public void testStreamMultiProperties() {
+        assumeTrue(g.features().vertex().supportsMultiProperties());
+
+        alice.addNickname("ally");
+        alice.addNickname("lisa");
+        assertThat(alice.getNicknames().collect(Collectors.toList()), containsInAnyOrder("ally", "lisa"));
+    }
+
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2015 Bay of Many
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * This project is derived from code in the TinkerPop project under the following license:
+ *
+ *    TinkerPop3
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ */
+
+package peapod.traversal;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Order;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.Before;
+import org.junit.Test;
+import peapod.FramedGraph;
+import peapod.GraphTest;
+
+import java.util.stream.Collectors;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.junit.Assert.*;
+
+public class TypedTraversalTest extends GraphTest {
+
+    private FramedGraph graph;
+
+    private Person alice;
+    private Person bob;
+    private Person charlie;
+
+    @Before
+    public void init() {
+        Vertex alice = g.addVertex(T.label, "Person", "name", "alice", "age", 30);
+        Vertex bob = g.addVertex(T.label, "Person", "name", "bob", "age", 35);
+        Vertex charlie = g.addVertex(T.label, "Person", "name", "charlie", "age", 35);
+
+        alice.addEdge("friend", bob);
+        alice.addEdge("friend", charlie);
+        bob.addEdge("friend", charlie);
+        alice.addEdge("knows", bob);
+
+        graph = new FramedGraph(g, Person.class.getPackage());
+        this.alice = graph.v(alice.id());
+        this.bob = graph.v(bob.id());
+        this.charlie = graph.v(charlie.id());
+    }
+
+    @Test
+    public void testFrom() {
+        assertThat(PersonTraversal.from(graph).toList(), containsInAnyOrder(alice, bob, charlie));
+        assertThat(PersonTraversal.from(bob).toList(), contains(bob));
+    }
+
+    @Test
+    public void testHasProperty() {
+        assertThat(PersonTraversal.from(graph).hasName("alice").toList(), contains(alice));
+        assertThat(PersonTraversal.from(graph).hasAge(35).toSet(), containsInAnyOrder(bob, charlie));
+        assertFalse(PersonTraversal.from(graph).hasName("diane").tryNext().isPresent());
+    }
+
+    @Test
+    public void testVertexSteps() {
+        assertThat(PersonTraversal.from(alice).outFriends().toList(), containsInAnyOrder(bob, charlie));
+        assertThat(PersonTraversal.from(charlie).inFriendOf().toList(), containsInAnyOrder(alice, bob));
+        assertEquals(1, PersonTraversal.from(graph).hasName("alice").outFriends().outFriends().count());
+        assertThat(PersonTraversal.from(graph).outFriends().hasAge(35).dedup().toList(), containsInAnyOrder(bob, charlie));
+    }
+
+    @Test
+    public void testEdgeSteps() {
+        assertThat(PersonTraversal.from(alice).outKnows().toList(), contains(bob));
+        assertFalse(PersonTraversal.from(bob).outKnows().hasNext());
+    }
+
+    @Test
+    public void testOrderBy() {
+        assertThat(PersonTraversal.from(graph).orderByName(Order.decr).toList(), contains(charlie, bob, alice));
+        assertThat(PersonTraversal.from(graph).orderByName(Order.incr).range(1, 3).toList(), contains(bob, charlie));
+    }
+
+    @Test
+    public void testFilter() {
+        assertThat(PersonTraversal.from(graph).filter(p -> p.getName().startsWith("c")).toList(), contains(charlie));
+        assertEquals("bob,charlie", PersonTraversal.from(alice).outFriends().stream()
+                .map(Person::getName).sorted().collect(Collectors.joining(",")));
+    }
+
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2015 Bay of Many
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ * This project is derived from code in the TinkerPop project under the following license:
+ *
+ *    TinkerPop3
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ */
+
+package peapod.writebehind;
+
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.Before;
+import org.junit.Test;
+import peapod.FramedGraph;
+import peapod.GraphTest;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+public class WriteBehindTest extends GraphTest {
+
+    private FramedGraph graph;
+    private Vertex vertex;
+    private Person alice;
+
+    @Before
+    public void init() {
+        vertex = g.addVertex(T.label, "Person", "name", "alice", "age", 30);
+        graph = new FramedGraph(g, Person.class.getPackage());
+        alice = graph.v(vertex.id());
+    }
+
+    @Test
+    public void testFlush() {
+        alice.setName("bob");
+        alice.setAge(31);
+        assertEquals("bob", alice.getName());
+        assertEquals(31, alice.getAge());
+        assertEquals("alice", vertex.value("name"));
+        assertEquals(30, (int) vertex.value("age"));
+
+        graph.flush();
+        assertEquals("bob", vertex.value("name"));
+        assertEquals(31, (int) vertex.value("age"));
+        assertEquals("bob", alice.getName());
+    }
+
+    @Test
+    public void testFlushRemoves() {
+        alice.setName(null);
+        assertNull(alice.getName());
+        assertTrue(vertex.property("name").isPresent());
+
+        graph.flush();
+        assertFalse(vertex.property("name").isPresent());
+    }
+
+    @Test
+    public void testSkipsEqualValues() {
+        Object before = vertex.property("name").id();
+        alice.setName("alice");
+        graph.flush();
+        assertEquals(before, vertex.property("name").id());
+    }
+
+    @Test
+    public void testCommit() {
+        alice.setName("bob");
+        graph.commit();
+        assertEquals("bob", vertex.value("name"));
+    }
+
+    @Test
+    public void testDiscardedOnRollback() {
+        assumeTrue(g.features().graph().supportsTransactions());
+        graph.tx().commit();
+
+        alice.setName("bob");
+        graph.tx().rollback();
+        assertEquals("alice", alice.getName());
+        graph.flush();
+        assertEquals("alice", alice.getName());
+
+        g.traversal().V().drop().iterate();
+        graph.tx().commit();
+    }
+
+    @Test
+    public void testDiscardedOnTxCommit() {
+        assumeTrue(g.features().graph().supportsTransactions());
+        graph.tx().commit();
+
+        alice.setName("bob");
+        graph.tx().commit();
+        assertEquals("alice", alice.getName());
+        graph.flush();
+        graph.tx().commit();
+        assertEquals("alice", alice.getName());
+
+        g.traversal().V().drop().iterate();
+        graph.tx().commit();
+    }
+
+}
@@ -11,10 +11,11 @@ import peapod.FramedElement;
 import peapod.FramedGraph;
 import peapod.internal.runtime.Framer;
 import peapod.internal.runtime.IFramer;
+import peapod.internal.runtime.Rebindable;
 
 @SuppressWarnings("unused")
 public final class Knows$Impl extends Knows
-        implements FramedEdge {
+        implements FramedEdge, Rebindable {
 
     private FramedGraph graph;
     private Edge e;
@@ -28,13 +29,16 @@ public final class Knows$Impl extends Knows
     public Element element() {
         return e;
     }
+    public void rebind(Element element) {
+        this.e = (Edge) element;
+    }
     public Person getPerson() {
         // edge-getter-vertex
-        return graph().frame(e.outVertex(), Person.class);
+        return Person$Impl.PersonFramer.dispatch(e.outVertex(), graph);
     }
     public Person getOtherPerson() {
         // edge-getter-vertex
-        return graph().frame(e.inVertex(), Person.class);
+        return Person$Impl.PersonFramer.dispatch(e.inVertex(), graph);
     }
     public int hashCode() {
         return e.hashCode();
@@ -0,0 +1,17 @@
+package peapod.internal.classes;
+
+import java.lang.String;
+import java.util.Arrays;
+import java.util.List;
+import peapod.internal.runtime.FramerIndex;
+import peapod.internal.runtime.IFramer;
+
+public final class Peapod$FramerIndex implements FramerIndex {
+    public String packageName() {
+        return "peapod.internal.classes";
+    }
+
+    public List<IFramer<?, ?>> framers() {
+        return Arrays.<IFramer<?, ?>>asList(new Knows$Impl.KnowsFramer(), new Person$Impl.PersonFramer());
+    }
+}
@@ -5,22 +5,27 @@ import java.lang.Object;
 import java.lang.String;
 import java.lang.SuppressWarnings;
 import java.util.List;
+import java.util.Map;
 import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import peapod.FramedElement;
 import peapod.FramedGraph;
 import peapod.FramedVertex;
+import peapod.internal.runtime.FrameHelper;
 import peapod.internal.runtime.Framer;
 import peapod.internal.runtime.IFramer;
+import peapod.internal.runtime.Prefetchable;
+import peapod.internal.runtime.Rebindable;
 
 
 @SuppressWarnings("unused")
 public final class Person$Impl extends Person
-        implements FramedVertex<Person> {
+        implements Rebindable, FramedVertex<Person>, Prefetchable {
 
     private FramedGraph graph;
     private Vertex v;
+    private Map<String, Object> prefetched;
     public Person$Impl(Vertex v, FramedGraph graph) {
         this.v  = v;
         this.graph = graph;
@@ -31,12 +36,22 @@ public final class Person$Impl extends Person
     public Element element() {
         return v;
     }
+    public void prefetched(Map<String, Object> properties) {
+        this.prefetched = properties;
+    }
+    public void rebind(Element element) {
+        this.v = (Vertex) element;
+        this.prefetched = null;
+    }
     public String getName() {
+        if (prefetched != null && prefetched.containsKey("name")) {
+            return (String) prefetched.get("name");
+        }
         return v.<String>property("name").orElse(null);
     }
     public List<Knows> getKnows() {
         // getter-edge-collection
-        return graph.frame(v.edges(Direction.OUT, "knows"), Knows.class);
+        return graph.frame(FrameHelper.edges(this, Direction.OUT, "knows"), Knows.class);
     }
     public int hashCode() {
         return v.hashCode();
@@ -54,6 +69,8 @@ public final class Person$Impl extends Person
     public static final class PersonFramer
             implements IFramer<Vertex, Person> {
 
+        public static final PersonFramer INSTANCE = new PersonFramer();
+
         public Class<Vertex> type() {
             return Vertex.class;
         }
@@ -73,5 +90,9 @@ public final class Person$Impl extends Person
         public Person frameNew(Vertex v, FramedGraph graph) {
             return frame(v, graph);
         }
+
+        public static Person dispatch(Vertex v, FramedGraph graph) {
+            return "Person".equals(v.label()) ? graph.frame(v, INSTANCE) : graph.frame(v, Person.class);
+        }
     }
 }
\ No newline at end of file
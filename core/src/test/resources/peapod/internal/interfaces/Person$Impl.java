@@ -5,21 +5,27 @@ import java.lang.Object;
 import java.lang.String;
 import java.lang.SuppressWarnings;
 import java.util.List;
+import java.util.Map;
 import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import peapod.FramedElement;
 import peapod.FramedGraph;
 import peapod.FramedVertex;
+import peapod.internal.runtime.FrameHelper;
 import peapod.internal.runtime.Framer;
 import peapod.internal.runtime.IFramer;
+import peapod.internal.runtime.Prefetchable;
+import peapod.internal.runtime.Rebindable;
 
 @SuppressWarnings("unused")
-public final class Person$Impl implements Person, FramedVertex<Person> {
+public final class Person$Impl implements Rebindable, Prefetchable, Person, FramedVertex<Person> {
     private FramedGraph graph;
 
     private Vertex v;
 
+    private Map<String, Object> prefetched;
+
     public Person$Impl(Vertex v, FramedGraph graph) {
         this.v  = v;
         this.graph = graph;
@@ -33,13 +39,25 @@ public final class Person$Impl implements Person, FramedVertex<Person> {
         return v;
     }
 
+    public void prefetched(Map<String, Object> properties) {
+        this.prefetched = properties;
+    }
+
+    public void rebind(Element element) {
+        this.v = (Vertex) element;
+        this.prefetched = null;
+    }
+
     public String getName() {
+        if (prefetched != null && prefetched.containsKey("name")) {
+            return (String) prefetched.get("name");
+        }
         return v.<String>property("name").orElse(null);
     }
 
     public List<Knows> getKnows() {
         // getter-edge-collection
-        return graph.frame(v.edges(Direction.OUT, "knows"), Knows.class);
+        return graph.frame(FrameHelper.edges(this, Direction.OUT, "knows"), Knows.class);
     }
 
     public int hashCode() {
@@ -56,6 +74,9 @@ public final class Person$Impl implements Person, FramedVertex<Person> {
 
     @Framer
     public static final class PersonFramer implements IFramer<Vertex, Person> {
+
+        public static final PersonFramer INSTANCE = new PersonFramer();
+
         public Class<Vertex> type() {
             return Vertex.class;
         }
@@ -75,5 +96,16 @@ public final class Person$Impl implements Person, FramedVertex<Person> {
         public Person frameNew(Vertex v, FramedGraph graph) {
             return frame(v, graph);
         }
+
+        public static Person dispatch(Vertex v, FramedGraph graph) {
+            switch (v.label()) {
+                case "Person":
+                    return graph.frame(v, PersonFramer.INSTANCE);
+                case "Programmer":
+                    return graph.frame(v, Programmer$Impl.ProgrammerFramer.INSTANCE);
+                default:
+                    return graph.frame(v, Person.class);
+            }
+        }
     }
 }
\ No newline at end of file
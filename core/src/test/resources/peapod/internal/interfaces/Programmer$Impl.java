@@ -6,20 +6,25 @@ import java.lang.Object;
 import java.lang.String;
 import java.lang.SuppressWarnings;
 import java.util.List;
+import java.util.Map;
 import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import peapod.FramedElement;
 import peapod.FramedGraph;
 import peapod.FramedVertex;
+import peapod.internal.runtime.FrameHelper;
 import peapod.internal.runtime.Framer;
 import peapod.internal.runtime.IFramer;
+import peapod.internal.runtime.Prefetchable;
+import peapod.internal.runtime.Rebindable;
 
 @SuppressWarnings("unused")
-public final class Programmer$Impl implements FramedVertex<Programmer>, Programmer, Person {
+public final class Programmer$Impl implements FramedVertex<Programmer>, Programmer, Rebindable, Prefetchable, Person {
 
     private FramedGraph graph;
     private Vertex v;
+    private Map<String, Object> prefetched;
     public Programmer$Impl(Vertex v, FramedGraph graph) {
         this.v  = v;
         this.graph = graph;
@@ -30,19 +35,32 @@ public final class Programmer$Impl implements FramedVertex<Programmer>, Programm
     public Element element() {
         return v;
     }
+    public void prefetched(Map<String, Object> properties) {
+        this.prefetched = properties;
+    }
+    public void rebind(Element element) {
+        this.v = (Vertex) element;
+        this.prefetched = null;
+    }
     public void setExperience(Integer years) {
         if (years == null) {
             v.property("experience").remove();
         } else {
             v.property("experience", years);
         }
+        if (prefetched != null) {
+            prefetched.remove("experience");
+        }
     }
     public String getName() {
+        if (prefetched != null && prefetched.containsKey("name")) {
+            return (String) prefetched.get("name");
+        }
         return v.<String>property("name").orElse(null);
     }
     public List<Knows> getKnows() {
         // getter-edge-collection
-        return graph.frame(v.edges(Direction.OUT, "knows"), Knows.class);
+        return graph.frame(FrameHelper.edges(this, Direction.OUT, "knows"), Knows.class);
     }
     public int hashCode() {
         return v.hashCode();
@@ -60,6 +78,8 @@ public final class Programmer$Impl implements FramedVertex<Programmer>, Programm
     public static final class ProgrammerFramer
             implements IFramer<Vertex, Programmer> {
 
+        public static final ProgrammerFramer INSTANCE = new ProgrammerFramer();
+
         public Class<Vertex> type() {
             return Vertex.class;
         }
@@ -79,5 +99,9 @@ public final class Programmer$Impl implements FramedVertex<Programmer>, Programm
         public Programmer frameNew(Vertex v, FramedGraph graph) {
             return frame(v, graph);
         }
+
+        public static Programmer dispatch(Vertex v, FramedGraph graph) {
+            return "Programmer".equals(v.label()) ? graph.frame(v, INSTANCE) : graph.frame(v, Programmer.class);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,111 @@
+package peapod.internal.properties;
+
+import java.lang.Class;
+import java.lang.Object;
+import java.lang.String;
+import java.lang.SuppressWarnings;
+import java.util.Map;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import peapod.FramedElement;
+import peapod.FramedGraph;
+import peapod.FramedVertex;
+import peapod.internal.runtime.Framer;
+import peapod.internal.runtime.IFramer;
+import peapod.internal.runtime.Prefetchable;
+import peapod.internal.runtime.Rebindable;
+
+@SuppressWarnings("unused")
+public final class Person$Impl extends Person implements FramedVertex<Person>, Rebindable, Prefetchable {
+  private FramedGraph graph;
+
+  private Vertex v;
+
+  private Map<String, Object> prefetched;
+
+  public Person$Impl(Vertex v, FramedGraph graph) {
+    this.v  = v;
+    this.graph = graph;
+  }
+
+  public FramedGraph graph() {
+    return graph;
+  }
+
+  public Element element() {
+    return v;
+  }
+
+  public void prefetched(Map<String, Object> properties) {
+    this.prefetched = properties;
+  }
+
+  public void rebind(Element element) {
+    this.v = (Vertex) element;
+    this.prefetched = null;
+  }
+
+  public String getName() {
+    if (prefetched != null && prefetched.containsKey("name")) {
+      return (String) prefetched.get("name");
+    }
+    return v.<String>property("name").orElse(null);
+  }
+
+  public void setName(String name) {
+    if (name == null) {
+      v.property("name").remove();
+    } else {
+      v.property("name", name);
+    }
+    if (prefetched != null) {
+      prefetched.remove("name");
+    }
+  }
+
+  public boolean hasName() {
+    // TODO: this method cannot be generated and should be implemented
+    throw new RuntimeException("nonstandard-property: not yet supported");
+  }
+
+  public int hashCode() {
+    return v.hashCode();
+  }
+
+  public boolean equals(Object other) {
+    return (other instanceof FramedElement) && v.equals(((FramedElement) other).element());
+  }
+
+  public String toString() {
+    return v.label() + "[" + v.id() + "]";
+  }
+
+  @Framer
+  public static final class PersonFramer implements IFramer<Vertex, Person> {
+    public static final PersonFramer INSTANCE = new PersonFramer();
+
+    public Class<Vertex> type() {
+      return Vertex.class;
+    }
+
+    public Class<Person> frameClass() {
+      return Person.class;
+    }
+
+    public String label() {
+      return "Person";
+    }
+
+    public Person frame(Vertex v, FramedGraph graph) {
+      return new Person$Impl(v, graph);
+    }
+
+    public Person frameNew(Vertex v, FramedGraph graph) {
+      return frame(v, graph);
+    }
+
+    public static Person dispatch(Vertex v, FramedGraph graph) {
+      return "Person".equals(v.label()) ? graph.frame(v, INSTANCE) : graph.frame(v, Person.class);
+    }
+  }
+}
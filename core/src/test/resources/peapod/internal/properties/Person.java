@@ -0,0 +1,14 @@
+package peapod.internal.properties;
+
+import peapod.annotations.Vertex;
+
+@Vertex
+public abstract class Person {
+
+    public abstract String getName();
+
+    public abstract void setName(String name);
+
+    public abstract boolean hasName();
+
+}
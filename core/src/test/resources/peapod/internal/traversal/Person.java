@@ -0,0 +1,14 @@
+package peapod.internal.traversal;
+
+import peapod.annotations.Vertex;
+
+import java.util.List;
+
+@Vertex
+public abstract class Person {
+
+    public abstract String getName();
+
+    public abstract List<Person> getFriends();
+
+}
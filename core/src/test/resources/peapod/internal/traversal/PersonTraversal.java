@@ -0,0 +1,9 @@
+package peapod.internal.traversal;
+
+public class PersonTraversal {
+
+    public Person first() {
+        return null;
+    }
+
+}